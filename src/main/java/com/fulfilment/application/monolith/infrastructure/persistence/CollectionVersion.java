@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.infrastructure.persistence;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * The row holding a collection's version, see {@link CollectionVersions}, which reads and writes it
+ * over JDBC. Mapped so that Hibernate creates the table where it generates the schema.
+ */
+@Entity
+@Table(name = "collection_version")
+public class CollectionVersion {
+
+  @Id public String name;
+
+  public long version;
+
+  public CollectionVersion() {}
+}
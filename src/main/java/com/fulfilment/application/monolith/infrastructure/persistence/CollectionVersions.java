@@ -0,0 +1,113 @@
+package com.fulfilment.application.monolith.infrastructure.persistence;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.jboss.logging.Logger;
+
+/**
+ * Change counters of the stores, products and warehouses, bumped by every write to the collection.
+ * The REST layer derives its ETags from them, so an unchanged collection can be answered with 304
+ * Not Modified without reading it.
+ *
+ * <p>The counters live in the {@code collection_version} table, so every instance sees the same
+ * version. A write bumps its collection once its transaction has committed, in a statement of its
+ * own: writers of a collection only queue on its row for that statement, not for their whole
+ * transaction, and a write that rolls back never changes the version. Until the bump lands, a
+ * moment after the commit, readers may still be told the collection is unchanged.
+ *
+ * <p>Both the bump and the version read go through plain JDBC, not Hibernate, so neither touches a
+ * session or the second-level cache.
+ */
+@ApplicationScoped
+public class CollectionVersions {
+
+  private static final Logger LOGGER = Logger.getLogger(CollectionVersions.class);
+
+  public static final String STORES = "stores";
+  public static final String PRODUCTS = "products";
+  public static final String WAREHOUSES = "warehouses";
+
+  /** Bumps the version of collection {@code ?1}, creating its row on the first write. */
+  public static final String BUMP =
+      "insert into collection_version (name, version) values (?1, 1)"
+          + " on conflict (name) do update set version = collection_version.version + 1";
+
+  private static final String SELECT_VERSION =
+      "select version from collection_version where name = ?";
+
+  private final DataSource dataSource;
+  private final TransactionSynchronizationRegistry transactions;
+
+  @Inject
+  public CollectionVersions(DataSource dataSource, TransactionSynchronizationRegistry transactions) {
+    this.dataSource = dataSource;
+    this.transactions = transactions;
+  }
+
+  /** The current version of the collection, changed by every write to it. Reads the database. */
+  public String version(String collection) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(SELECT_VERSION)) {
+      statement.setString(1, collection);
+      try (ResultSet row = statement.executeQuery()) {
+        return Long.toString(row.next() ? row.getLong(1) : 0L);
+      }
+    } catch (SQLException e) {
+      throw new PersistenceException("Could not read the version of " + collection, e);
+    }
+  }
+
+  /**
+   * Records a write to the collection: once the running transaction commits when there is one,
+   * right away otherwise. Several writes to the collection in one transaction bump it once.
+   */
+  public void changed(String collection) {
+    if (transactions.getTransactionStatus() == Status.STATUS_NO_TRANSACTION) {
+      bump(collection);
+      return;
+    }
+    String key = CollectionVersions.class.getName() + ":" + collection;
+    if (transactions.getResource(key) != null) {
+      return;
+    }
+    transactions.putResource(key, Boolean.TRUE);
+    transactions.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
+
+          @Override
+          public void afterCompletion(int status) {
+            if (status != Status.STATUS_COMMITTED) {
+              return;
+            }
+            try {
+              bump(collection);
+            } catch (PersistenceException e) {
+              // the write itself is committed; its collection keeps the old version until the next
+              LOGGER.errorf(e, "Could not bump the version of %s", collection);
+            }
+          }
+        });
+  }
+
+  // a short transaction of its own: the connection is not enlisted in one that has completed
+  private void bump(String collection) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(BUMP.replace("?1", "?"))) {
+      statement.setString(1, collection);
+      statement.executeUpdate();
+    } catch (SQLException e) {
+      throw new PersistenceException("Could not bump the version of " + collection, e);
+    }
+  }
+}
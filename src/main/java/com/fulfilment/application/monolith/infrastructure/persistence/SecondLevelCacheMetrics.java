@@ -0,0 +1,73 @@
+package com.fulfilment.application.monolith.infrastructure.persistence;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Adds the size of each second-level cache region, and the entries it lost, to the hit/miss/put
+ * meters Hibernate already publishes. The cache does not count evictions itself, so removals are
+ * derived as puts minus the current size: entries evicted for space, expired or invalidated by a
+ * write.
+ */
+@ApplicationScoped
+public class SecondLevelCacheMetrics {
+
+  private static final Logger LOGGER = Logger.getLogger(SecondLevelCacheMetrics.class);
+
+  private final SessionFactory sessionFactory;
+  private final MeterRegistry meterRegistry;
+
+  @Inject
+  public SecondLevelCacheMetrics(SessionFactory sessionFactory, MeterRegistry meterRegistry) {
+    this.sessionFactory = sessionFactory;
+    this.meterRegistry = meterRegistry;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    Statistics statistics = sessionFactory.getStatistics();
+    if (!statistics.isStatisticsEnabled()) {
+      LOGGER.info("Hibernate statistics are disabled, second-level cache size is not published");
+      return;
+    }
+    // named query regions are only created on first use, so they are not listed yet
+    Set<String> regions = new TreeSet<>(List.of(statistics.getSecondLevelCacheRegionNames()));
+    regions.add(WarehouseRepository.BY_BUSINESS_UNIT_CODE_REGION);
+    for (String region : regions) {
+      Gauge.builder("hibernate.second.level.cache.size", statistics, s -> size(s, region))
+          .description("The number of entries held in the second level cache region")
+          .tag("region", region)
+          .register(meterRegistry);
+      FunctionCounter.builder(
+              "hibernate.second.level.cache.removals", statistics, s -> removals(s, region))
+          .description("The number of entries evicted, expired or invalidated from the region")
+          .tag("region", region)
+          .register(meterRegistry);
+    }
+  }
+
+  private static double size(Statistics statistics, String region) {
+    CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+    return regionStatistics == null ? 0 : Math.max(regionStatistics.getElementCountInMemory(), 0);
+  }
+
+  private static double removals(Statistics statistics, String region) {
+    CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+    return regionStatistics == null
+        ? 0
+        : Math.max(regionStatistics.getPutCount() - regionStatistics.getElementCountInMemory(), 0);
+  }
+}
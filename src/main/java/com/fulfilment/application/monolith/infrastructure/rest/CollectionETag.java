@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.infrastructure.rest;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tags the responses of a GET resource method with the version of the collection it lists, and
+ * answers {@code If-None-Match} with 304 Not Modified while that version is unchanged. See {@link
+ * ConditionalGetFilter}. Single entities are tagged with their own version instead, see {@link
+ * EntityTags}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CollectionETag {
+
+  /** The collection, one of the {@code CollectionVersions} names. */
+  String value();
+}
@@ -0,0 +1,47 @@
+package com.fulfilment.application.monolith.infrastructure.rest;
+
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Leaves responses smaller than {@code http.compression.min-size} uncompressed. Vert.x compresses
+ * every response of a compressible media type, however small; for a few hundred bytes that costs
+ * more CPU than it saves on the wire.
+ *
+ * <p>Only responses whose length is known when their headers are sent can be measured. Streamed
+ * responses are compressed as before.
+ */
+@ApplicationScoped
+public class CompressionThreshold {
+
+  // marks a response as not to be compressed, as Quarkus does for non-compressible media types
+  private static final String IDENTITY = "identity";
+
+  private final long minSize;
+
+  @Inject
+  public CompressionThreshold(
+      @ConfigProperty(name = "http.compression.min-size", defaultValue = "1024") long minSize) {
+    this.minSize = minSize;
+  }
+
+  void init(@Observes Router router) {
+    router.route().order(Integer.MIN_VALUE).handler(this::skipSmallResponses);
+  }
+
+  private void skipSmallResponses(RoutingContext context) {
+    context.addHeadersEndHandler(
+        v -> {
+          String length = context.response().headers().get(HttpHeaders.CONTENT_LENGTH);
+          if (length != null && Long.parseLong(length) < minSize) {
+            context.response().headers().set(HttpHeaders.CONTENT_ENCODING, IDENTITY);
+          }
+        });
+    context.next();
+  }
+}
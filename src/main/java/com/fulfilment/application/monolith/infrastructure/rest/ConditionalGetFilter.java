@@ -0,0 +1,91 @@
+package com.fulfilment.application.monolith.infrastructure.rest;
+
+import com.fulfilment.application.monolith.infrastructure.persistence.CollectionVersions;
+import io.quarkus.runtime.BlockingOperationControl;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+/**
+ * Conditional GET for the resource methods annotated with {@link CollectionETag}. Successful responses
+ * carry a strong ETag made of the collection's current version; a request whose {@code
+ * If-None-Match} holds that ETag gets 304 Not Modified before the resource method runs, so only
+ * the collection's version is read from the database and nothing is serialized.
+ *
+ * <p>The version is taken before the resource reads anything, so a write committing meanwhile can
+ * at worst cause one more full response, never a stale 304.
+ *
+ * <p>A collection is served as JSON or Smile, compressed or not, depending on the {@code Accept}
+ * and {@code Accept-Encoding} headers; the ETag tells these representations apart by a hash of
+ * both headers, and the responses say they vary by them.
+ */
+public class ConditionalGetFilter {
+
+  // also set by EntityTags#tagResponse, for the entity responses of the other resource methods
+  static final String ETAG_PROPERTY = ConditionalGetFilter.class.getName() + ".etag";
+  private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+  private final CollectionVersions versions;
+
+  @Inject
+  public ConditionalGetFilter(CollectionVersions versions) {
+    this.versions = versions;
+  }
+
+  @ServerRequestFilter
+  public Uni<Response> notModified(ContainerRequestContext request, ResourceInfo resourceInfo) {
+    if (!HttpMethod.GET.equals(request.getMethod())) {
+      return Uni.createFrom().nullItem();
+    }
+    CollectionETag collection = resourceInfo.getResourceMethod().getAnnotation(CollectionETag.class);
+    if (collection == null) {
+      return Uni.createFrom().nullItem();
+    }
+    String name = collection.value();
+    if (BlockingOperationControl.isBlockingAllowed()) {
+      return Uni.createFrom().item(notModified(request, name, versions.version(name)));
+    }
+    // the filters of non-blocking endpoints run on the event loop, which must not wait for the
+    // database: the version is read on a worker thread, and the request resumes on the event loop
+    return Uni.createFrom()
+        .completionStage(
+            Vertx.currentContext()
+                .executeBlocking(() -> versions.version(name), false)
+                .toCompletionStage())
+        .map(version -> notModified(request, name, version));
+  }
+
+  private static Response notModified(
+      ContainerRequestContext request, String collection, String version) {
+    EntityTag etag = new EntityTag(collection + "-" + version + "-" + representation(request));
+    request.setProperty(ETAG_PROPERTY, etag);
+    Response.ResponseBuilder notModified = request.getRequest().evaluatePreconditions(etag);
+    return notModified == null ? null : notModified.tag(etag).header(HttpHeaders.VARY, VARY).build();
+  }
+
+  @ServerResponseFilter
+  public void tag(ContainerRequestContext request, ContainerResponseContext response) {
+    Object etag = request.getProperty(ETAG_PROPERTY);
+    if (etag != null
+        && (response.getStatus() == Response.Status.OK.getStatusCode()
+            || response.getStatus() == Response.Status.CREATED.getStatusCode())) {
+      response.getHeaders().putSingle(HttpHeaders.ETAG, etag);
+      response.getHeaders().putSingle(HttpHeaders.VARY, VARY);
+    }
+  }
+
+  private static String representation(ContainerRequestContext request) {
+    String accept = request.getHeaderString(HttpHeaders.ACCEPT);
+    String acceptEncoding = request.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+    return Integer.toHexString((accept + "|" + acceptEncoding).hashCode());
+  }
+}
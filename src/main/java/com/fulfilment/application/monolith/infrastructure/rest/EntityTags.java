@@ -0,0 +1,78 @@
+package com.fulfilment.application.monolith.infrastructure.rest;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Strong ETags of single entities, made of their {@code @Version} column, and the preconditions of
+ * the requests that read or write one. A client that sends the ETag it read in {@code If-Match}
+ * has its update refused with 412 Precondition Failed when the entity changed since, before
+ * anything is written.
+ */
+public final class EntityTags {
+
+  private EntityTags() {}
+
+  public static EntityTag of(long version) {
+    return new EntityTag(Long.toString(version));
+  }
+
+  /** The entity, or 304 Not Modified when the request's {@code If-None-Match} holds its ETag. */
+  public static Response conditionalGet(Request request, Object entity, long version) {
+    EntityTag etag = of(version);
+    Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+    return (notModified != null ? notModified : Response.ok(entity)).tag(etag).build();
+  }
+
+  /** The updated entity, with its new ETag. */
+  public static Response updated(Object entity, long version) {
+    return Response.ok(entity).tag(of(version)).build();
+  }
+
+  /**
+   * Fails with 412 Precondition Failed when the request's {@code If-Match} does not hold the ETag
+   * of the entity at this version. Requests without a precondition pass.
+   */
+  public static void checkPreconditions(Request request, long version) {
+    if (request.evaluatePreconditions(of(version)) != null) {
+      throw preconditionFailed("Entity was modified: its current version is " + version + ".");
+    }
+  }
+
+  /**
+   * The version the request's {@code If-Match} requires, for writes that check it themselves
+   * together with the write. Null when the request has no precondition or accepts any version
+   * ({@code *}); 412 Precondition Failed when it holds anything but a single ETag of a version.
+   */
+  public static Long ifMatchVersion(HttpHeaders headers) {
+    String ifMatch = headers.getHeaderString(HttpHeaders.IF_MATCH);
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String value = ifMatch.trim();
+    if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+      try {
+        return Long.parseLong(value.substring(1, value.length() - 1));
+      } catch (NumberFormatException e) {
+        // not an ETag of ours
+      }
+    }
+    throw preconditionFailed("If-Match does not hold the ETag of a version: " + ifMatch);
+  }
+
+  public static WebApplicationException preconditionFailed(String message) {
+    return new WebApplicationException(message, 412);
+  }
+
+  /**
+   * Tags the successful response of the request with the entity version, for resource methods
+   * that return the entity itself rather than a {@link Response}.
+   */
+  public static void tagResponse(ContainerRequestContext request, long version) {
+    request.setProperty(ConditionalGetFilter.ETAG_PROPERTY, of(version));
+  }
+}
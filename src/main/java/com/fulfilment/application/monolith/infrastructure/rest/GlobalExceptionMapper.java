@@ -3,6 +3,7 @@ package com.fulfilment.application.monolith.infrastructure.rest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -28,6 +29,9 @@ public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
             code = 400;
         } else if (exception instanceof IllegalStateException) {
             code = 409;
+        } else if (exception instanceof OptimisticLockException) {
+            // another request updated the entity since it was read
+            code = 409;
         }
 
         ObjectNode exceptionJson = objectMapper.createObjectNode();
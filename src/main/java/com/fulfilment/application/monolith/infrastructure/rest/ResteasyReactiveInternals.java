@@ -0,0 +1,32 @@
+package com.fulfilment.application.monolith.infrastructure.rest;
+
+import org.jboss.resteasy.reactive.server.core.CurrentRequestManager;
+import org.jboss.resteasy.reactive.server.core.ResteasyReactiveRequestContext;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The one place that uses RESTEasy Reactive internals, which are not public API and may change in
+ * any Quarkus release: check {@code VirtualThreadDispatchFilterTest} after every upgrade. Once the
+ * application targets Java 21, {@code @RunOnVirtualThread} replaces {@link
+ * VirtualThreadDispatchFilter} and this class goes with it.
+ */
+final class ResteasyReactiveInternals {
+
+  private ResteasyReactiveInternals() {}
+
+  /** Whether the resource method matched by the current request runs on a worker thread. */
+  static boolean currentTargetIsBlocking() {
+    return CurrentRequestManager.get().getTarget().isBlocking();
+  }
+
+  /**
+   * Continues the current request on the executor, with the handler after the running filter,
+   * once that filter returns.
+   */
+  static void continueCurrentRequestOn(Executor executor) {
+    ResteasyReactiveRequestContext request = CurrentRequestManager.get();
+    request.suspend();
+    request.resume(executor);
+  }
+}
@@ -0,0 +1,86 @@
+package com.fulfilment.application.monolith.infrastructure.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes entities as Smile, Jackson's binary JSON, for the endpoints that also produce
+ * {@value #APPLICATION_SMILE}. Callers that ask for it in {@code Accept} get the same documents as
+ * in JSON, without the cost of formatting and parsing text: field names repeated across the items
+ * of a list are written once and referred back to.
+ *
+ * <p>The mapper is a copy of the application's JSON mapper, so both formats share its modules and
+ * settings.
+ */
+@Provider
+@Produces(SmileMessageBodyHandler.APPLICATION_SMILE)
+@Consumes(SmileMessageBodyHandler.APPLICATION_SMILE)
+public class SmileMessageBodyHandler implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+  public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+  private final ObjectMapper smileMapper;
+
+  @Inject
+  public SmileMessageBodyHandler(ObjectMapper objectMapper) {
+    // the container owns the entity streams and closes them itself
+    SmileFactory smileFactory = new SmileFactory();
+    smileFactory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    smileFactory.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    this.smileMapper = objectMapper.copyWith(smileFactory);
+  }
+
+  @Override
+  public boolean isReadable(
+      Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return true;
+  }
+
+  @Override
+  public Object readFrom(
+      Class<Object> type,
+      Type genericType,
+      Annotation[] annotations,
+      MediaType mediaType,
+      MultivaluedMap<String, String> httpHeaders,
+      InputStream entityStream)
+      throws IOException {
+    return smileMapper.readerFor(smileMapper.constructType(genericType)).readValue(entityStream);
+  }
+
+  @Override
+  public boolean isWriteable(
+      Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return true;
+  }
+
+  @Override
+  public void writeTo(
+      Object entity,
+      Class<?> type,
+      Type genericType,
+      Annotation[] annotations,
+      MediaType mediaType,
+      MultivaluedMap<String, Object> httpHeaders,
+      OutputStream entityStream)
+      throws IOException {
+    // the declared type keeps the element type of lists, which the runtime class has lost
+    smileMapper.writerFor(smileMapper.constructType(genericType)).writeValue(entityStream, entity);
+  }
+}
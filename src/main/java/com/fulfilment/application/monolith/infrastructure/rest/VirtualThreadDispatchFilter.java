@@ -0,0 +1,48 @@
+package com.fulfilment.application.monolith.infrastructure.rest;
+
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Runs the blocking REST endpoints on virtual threads when {@code quarkus.virtual-threads.enabled}
+ * is set, instead of on the worker pool.
+ *
+ * <p>{@code @RunOnVirtualThread} would do the same per resource, but it is rejected at build time
+ * unless the application targets Java 21. Here a request to a blocking endpoint is moved to a
+ * virtual thread once it is matched, before Quarkus would hand it to the worker pool; the endpoint
+ * then runs right there, since blocking is allowed on that thread. Non-blocking endpoints (those
+ * returning {@code Uni} or {@code Multi}, or annotated {@code @NonBlocking}) stay on the event loop.
+ * On a JDK without virtual threads, Quarkus falls back to the worker pool.
+ *
+ * <p>Moving a request takes RESTEasy Reactive internals, kept to {@link ResteasyReactiveInternals}.
+ */
+public class VirtualThreadDispatchFilter {
+
+  private final boolean enabled;
+  private final ExecutorService virtualThreads;
+
+  @Inject
+  public VirtualThreadDispatchFilter(
+      @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "false")
+          boolean enabled,
+      @VirtualThreads ExecutorService virtualThreads) {
+    this.enabled = enabled;
+    this.virtualThreads = virtualThreads;
+  }
+
+  // non-blocking filters run on the event loop, before the dispatch of blocking endpoints
+  @ServerRequestFilter(nonBlocking = true)
+  public void dispatchToVirtualThread() {
+    if (!enabled) {
+      return;
+    }
+    if (!ResteasyReactiveInternals.currentTargetIsBlocking()) {
+      return;
+    }
+    ResteasyReactiveInternals.continueCurrentRequestOn(virtualThreads);
+  }
+}
@@ -0,0 +1,90 @@
+package com.fulfilment.application.monolith.infrastructure.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reports virtual threads pinned to their carrier thread (e.g. blocking inside a {@code
+ * synchronized} block), which silently turns a virtual thread back into a platform thread. Pinned
+ * periods longer than the threshold are timed in {@code virtual.threads.pinned} and logged with
+ * the frame that pinned the thread. Only active when virtual threads are enabled.
+ */
+@ApplicationScoped
+public class VirtualThreadPinningMonitor {
+
+  private static final Logger LOGGER = Logger.getLogger(VirtualThreadPinningMonitor.class);
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private final boolean enabled;
+  private final Duration threshold;
+  private final Timer pinned;
+
+  private RecordingStream recording;
+
+  @Inject
+  public VirtualThreadPinningMonitor(
+      @ConfigProperty(name = "quarkus.virtual-threads.enabled", defaultValue = "false")
+          boolean enabled,
+      @ConfigProperty(name = "virtual-threads.pinning-threshold", defaultValue = "20ms")
+          Duration threshold,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.threshold = threshold;
+    this.pinned = meterRegistry.timer("virtual.threads.pinned");
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!enabled) {
+      return;
+    }
+    try {
+      recording = new RecordingStream();
+      recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+      recording.onEvent(PINNED_EVENT, this::onPinned);
+      recording.startAsync();
+      LOGGER.infof("Monitoring virtual threads pinned for more than %d ms", threshold.toMillis());
+    } catch (RuntimeException e) {
+      // JFR is not available everywhere (e.g. native images); the application runs without it
+      LOGGER.warnf("Virtual thread pinning is not monitored: %s", e.getMessage());
+      recording = null;
+    }
+  }
+
+  void onStop(@Observes ShutdownEvent event) {
+    if (recording != null) {
+      recording.close();
+    }
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinned.record(event.getDuration());
+    List<RecordedFrame> frames =
+        event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+    LOGGER.warnf(
+        "Virtual thread pinned for %d ms at %s",
+        event.getDuration().toMillis(),
+        frames.isEmpty() ? "unknown frame" : describe(frames.get(0)));
+  }
+
+  private static String describe(RecordedFrame frame) {
+    return frame.getMethod().getType().getName()
+        + "."
+        + frame.getMethod().getName()
+        + ":"
+        + frame.getLineNumber();
+  }
+}
@@ -0,0 +1,61 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads locations from a CSV file with one {@code identification,maxNumberOfWarehouses,maxCapacity}
+ * entry per line. Blank lines and lines starting with {@code #} are ignored.
+ */
+public class FileLocationSource implements LocationSource {
+
+  private final Path file;
+
+  public FileLocationSource(Path file) {
+    this.file = file;
+  }
+
+  @Override
+  public List<Location> load() throws IOException {
+    List<Location> locations = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+          continue;
+        }
+        locations.add(parse(trimmed, lineNumber));
+      }
+    }
+    return locations;
+  }
+
+  @Override
+  public String describe() {
+    return "file:" + file;
+  }
+
+  private Location parse(String line, int lineNumber) {
+    String[] columns = line.split(",");
+    if (columns.length != 3) {
+      throw new IllegalArgumentException(
+          "Invalid location entry at " + file + ":" + lineNumber + ", expected 3 columns");
+    }
+    try {
+      return new Location(
+          columns[0].trim(), Integer.parseInt(columns[1].trim()), Integer.parseInt(columns[2].trim()));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid location limits at " + file + ":" + lineNumber, e);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Location resolver backed by an external catalogue (a CSV file or the {@code location} table).
+ * The catalogue is loaded into an immutable {@link LocationSnapshot} which is swapped in atomically
+ * on every reload, so lookups never block and always see a complete catalogue.
+ *
+ * <p>Enabled with {@code location.catalogue.enabled=true}; otherwise the built-in {@link
+ * LocationGateway} is used.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "location.catalogue.enabled", stringValue = "true")
+public class LocationCatalogue implements LocationResolver {
+
+  private static final Logger LOGGER = Logger.getLogger(LocationCatalogue.class);
+
+  private final LocationSource source;
+  private final AtomicReference<LocationSnapshot> snapshot =
+      new AtomicReference<>(LocationSnapshot.EMPTY);
+  private final Timer reloadTimer;
+  private final Counter reloadFailures;
+
+  @Inject
+  public LocationCatalogue(
+      @ConfigProperty(name = "location.catalogue.source", defaultValue = "table") String sourceType,
+      @ConfigProperty(name = "location.catalogue.file") Optional<String> file,
+      LocationRepository locationRepository,
+      MeterRegistry meterRegistry) {
+    this(createSource(sourceType, file, locationRepository), meterRegistry);
+  }
+
+  LocationCatalogue(LocationSource source, MeterRegistry meterRegistry) {
+    this.source = source;
+    this.reloadTimer = meterRegistry.timer("location.catalogue.reload");
+    this.reloadFailures = meterRegistry.counter("location.catalogue.reload.failures");
+    Gauge.builder("location.catalogue.entries", snapshot, s -> s.get().size())
+        .register(meterRegistry);
+    Gauge.builder("location.catalogue.version", snapshot, s -> s.get().version())
+        .register(meterRegistry);
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    // fail fast: without a catalogue every warehouse create/replace would be rejected
+    if (!reload()) {
+      throw new IllegalStateException("Unable to load location catalogue from " + source.describe());
+    }
+  }
+
+  @Scheduled(
+      every = "${location.catalogue.reload-interval:5m}",
+      delayed = "${location.catalogue.reload-interval:5m}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void scheduledReload() {
+    reload();
+  }
+
+  /**
+   * Loads the catalogue from its source and publishes it as a new snapshot. If loading fails the
+   * current snapshot stays in place.
+   *
+   * @return whether a new snapshot was published
+   */
+  public synchronized boolean reload() {
+    Timer.Sample sample = Timer.start();
+    try {
+      List<Location> locations = source.load();
+      LocationSnapshot current = snapshot.get();
+      LocationSnapshot next = LocationSnapshot.of(current.version() + 1, locations);
+      snapshot.set(next);
+      long nanos = sample.stop(reloadTimer);
+      LOGGER.infof(
+          "Location catalogue v%d loaded from %s: %d entries in %d ms",
+          next.version(), source.describe(), next.size(), nanos / 1_000_000);
+      return true;
+    } catch (Exception e) {
+      sample.stop(reloadTimer);
+      reloadFailures.increment();
+      LOGGER.errorf(
+          e,
+          "Failed to reload location catalogue from %s, keeping v%d",
+          source.describe(),
+          snapshot.get().version());
+      return false;
+    }
+  }
+
+  public LocationSnapshot snapshot() {
+    return snapshot.get();
+  }
+
+  @Override
+  public Location resolveByIdentifier(String identifier) {
+    LOGGER.debugf("Resolving location for identifier: %s", identifier);
+    Location location = snapshot.get().find(identifier);
+    if (location == null) {
+      LOGGER.warnf("Location NOT found for identifier: %s", identifier);
+    }
+    return location;
+  }
+
+  @Override
+  public Map<String, Location> resolveAll(Collection<String> identifiers) {
+    return snapshot.get().findAll(identifiers);
+  }
+
+  @Override
+  public boolean hasLocation(String identifier) {
+    return snapshot.get().contains(identifier);
+  }
+
+  private static LocationSource createSource(
+      String sourceType, Optional<String> file, LocationRepository locationRepository) {
+    switch (sourceType) {
+      case "file":
+        return new FileLocationSource(
+            Path.of(
+                file.orElseThrow(
+                    () ->
+                        new IllegalStateException(
+                            "location.catalogue.file must be set when location.catalogue.source=file"))));
+      case "table":
+        return new TableLocationSource(locationRepository);
+      default:
+        throw new IllegalStateException("Unknown location.catalogue.source: " + sourceType);
+    }
+  }
+}
@@ -2,44 +2,53 @@ package com.fulfilment.application.monolith.location;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import io.quarkus.arc.DefaultBean;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.jboss.logging.Logger;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 
+/** Built-in location registry, used unless the external {@link LocationCatalogue} is enabled. */
 @ApplicationScoped
+@DefaultBean
 public class LocationGateway implements LocationResolver {
 
   private static final Logger LOGGER = Logger.getLogger(LocationGateway.class);
 
-  private static final List<Location> locations = new ArrayList<>();
-
-  static {
-    locations.add(new Location("ZWOLLE-001", 1, 40));
-    locations.add(new Location("ZWOLLE-002", 2, 50));
-    locations.add(new Location("AMSTERDAM-001", 5, 100));
-    locations.add(new Location("AMSTERDAM-002", 3, 75));
-    locations.add(new Location("TILBURG-001", 1, 40));
-    locations.add(new Location("HELMOND-001", 1, 45));
-    locations.add(new Location("EINDHOVEN-001", 2, 70));
-    locations.add(new Location("VETSBY-001", 1, 90));
-  }
+  // immutable registry keyed by identifier, built once when the class is loaded
+  private static final LocationSnapshot locations =
+      LocationSnapshot.of(
+          1L,
+          List.of(
+              new Location("ZWOLLE-001", 1, 40),
+              new Location("ZWOLLE-002", 2, 50),
+              new Location("AMSTERDAM-001", 5, 100),
+              new Location("AMSTERDAM-002", 3, 75),
+              new Location("TILBURG-001", 1, 40),
+              new Location("HELMOND-001", 1, 45),
+              new Location("EINDHOVEN-001", 2, 70),
+              new Location("VETSBY-001", 1, 90)));
 
   @Override
   public Location resolveByIdentifier(String identifier) {
     LOGGER.debugf("Resolving location for identifier: %s", identifier);
-    Optional<Location> loc = locations.stream()
-        .filter(location -> location.identification.equals(identifier))
-        .findFirst();
-    
-    if (loc.isPresent()) {
-        return loc.get();
-    }
-    else {
-        LOGGER.warnf("Location NOT found for identifier: %s", identifier);
-        return null;
+    Location location = locations.find(identifier);
+    if (location == null) {
+      LOGGER.warnf("Location NOT found for identifier: %s", identifier);
     }
+    return location;
+  }
+
+  @Override
+  public Map<String, Location> resolveAll(Collection<String> identifiers) {
+    LOGGER.debugf("Resolving %d location identifiers", identifiers.size());
+    return locations.findAll(identifiers);
+  }
+
+  @Override
+  public boolean hasLocation(String identifier) {
+    return locations.contains(identifier);
   }
 }
@@ -0,0 +1,72 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, versioned view of the location catalogue. A snapshot is never modified after it is
+ * built; reloads publish a new snapshot instead, so readers can hold on to one without locking.
+ */
+public final class LocationSnapshot {
+
+  static final LocationSnapshot EMPTY = new LocationSnapshot(0L, Map.of(), Instant.EPOCH);
+
+  private final long version;
+  private final Map<String, Location> locations;
+  private final Instant loadedAt;
+
+  private LocationSnapshot(long version, Map<String, Location> locations, Instant loadedAt) {
+    this.version = version;
+    this.locations = locations;
+    this.loadedAt = loadedAt;
+  }
+
+  public static LocationSnapshot of(long version, Collection<Location> locations) {
+    return new LocationSnapshot(version, index(locations), Instant.now());
+  }
+
+  public long version() {
+    return version;
+  }
+
+  public int size() {
+    return locations.size();
+  }
+
+  public Instant loadedAt() {
+    return loadedAt;
+  }
+
+  public Location find(String identifier) {
+    return identifier != null ? locations.get(identifier) : null;
+  }
+
+  public Map<String, Location> findAll(Collection<String> identifiers) {
+    Map<String, Location> resolved = new HashMap<>();
+    for (String identifier : identifiers) {
+      Location location = find(identifier);
+      if (location != null) {
+        resolved.put(identifier, location);
+      }
+    }
+    return resolved;
+  }
+
+  public boolean contains(String identifier) {
+    return identifier != null && locations.containsKey(identifier);
+  }
+
+  static Map<String, Location> index(Collection<Location> source) {
+    Map<String, Location> byIdentifier = new HashMap<>();
+    for (Location location : source) {
+      if (byIdentifier.putIfAbsent(location.identification, location) != null) {
+        throw new IllegalStateException("Duplicate location identifier: " + location.identification);
+      }
+    }
+    return Map.copyOf(byIdentifier);
+  }
+}
@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+
+import java.util.List;
+
+/** Where the {@link LocationCatalogue} reads its entries from on every (re)load. */
+public interface LocationSource {
+  List<Location> load() throws Exception;
+
+  String describe();
+}
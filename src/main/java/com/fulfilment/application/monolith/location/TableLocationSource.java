@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+
+import java.util.List;
+
+/** Reads locations from the {@code location} table. */
+public class TableLocationSource implements LocationSource {
+
+  private final LocationRepository locationRepository;
+
+  public TableLocationSource(LocationRepository locationRepository) {
+    this.locationRepository = locationRepository;
+  }
+
+  @Override
+  public List<Location> load() {
+    return locationRepository.loadAll();
+  }
+
+  @Override
+  public String describe() {
+    return "table:location";
+  }
+}
@@ -4,14 +4,24 @@ import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 
 @Entity
+// keyset pagination of the catalogue walks the unique index on name in order
+@Table(indexes = @Index(name = "product_price_idx", columnList = "price"))
 @Cacheable
 public class Product {
 
-  @Id @GeneratedValue public Long id;
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+  @SequenceGenerator(name = "product_seq", allocationSize = 50)
+  public Long id;
 
   @Column(length = 40, unique = true)
   public String name;
@@ -24,6 +34,9 @@ public class Product {
 
   public int stock;
 
+  // incremented by every update, stock adjustments included
+  @Version public long version;
+
   public Product() {}
 
   public Product(String name) {
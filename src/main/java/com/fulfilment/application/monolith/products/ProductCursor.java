@@ -0,0 +1,44 @@
+package com.fulfilment.application.monolith.products;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the product catalogue, which is ordered by name, unnamed products last by id: the
+ * last product of a page. Names are unique, so a named product's position is its name alone and
+ * an unnamed product's its id. Handed to clients as an opaque URL-safe token.
+ */
+record ProductCursor(String name, Long id) {
+
+  static ProductCursor after(Product product) {
+    return product.name != null
+        ? new ProductCursor(product.name, null)
+        : new ProductCursor(null, product.id);
+  }
+
+  String encode() {
+    // a named product's cursor starts with the separator, "42" is the unnamed product 42
+    String position = name != null ? ":" + name : String.valueOf(id);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Also reads the cursors handed out before they were keyed on the name alone, which carry the
+   * product's id in front of the separator.
+   *
+   * @throws IllegalArgumentException when the token is not a cursor
+   */
+  static ProductCursor decode(String token) {
+    String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    int separator = decoded.indexOf(':');
+    if (separator < 0) {
+      return new ProductCursor(null, Long.parseLong(decoded));
+    }
+    if (separator > 0) {
+      Long.parseLong(decoded.substring(0, separator));
+    }
+    return new ProductCursor(decoded.substring(separator + 1), null);
+  }
+}
@@ -1,7 +1,166 @@
 package com.fulfilment.application.monolith.products;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Parameters;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.Cache;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.Session;
 
 @ApplicationScoped
-public class ProductRepository implements PanacheRepository<Product> {}
+public class ProductRepository implements PanacheRepository<Product> {
+
+  // the stock never goes negative: an adjustment that would take it below zero changes no row
+  private static final String ADJUST_STOCK =
+      "update product set stock = stock + ?, version = version + 1 where id = ? and stock + ? >= 0";
+
+  @Inject TransactionSynchronizationRegistry transactions;
+
+  /**
+   * Up to {@code limit} products following {@code after} (from the start when null), ordered by
+   * name, optionally within a price range and in stock only. Products without a name come last,
+   * ordered by id. Named products are read straight off the unique index on name and unnamed ones
+   * off the primary key, each with their own seek, so the cost of a page does not depend on how
+   * deep into the catalogue it is.
+   */
+  public List<Product> findPage(
+      ProductCursor after, BigDecimal minPrice, BigDecimal maxPrice, boolean inStockOnly, int limit) {
+    List<Product> page = new ArrayList<>();
+    if (after == null || after.name() != null) {
+      StringBuilder query = new StringBuilder("name is not null");
+      Parameters parameters = new Parameters();
+      if (after != null) {
+        query.append(" and name > :afterName");
+        parameters.and("afterName", after.name());
+      }
+      filter(query, parameters, minPrice, maxPrice, inStockOnly);
+      page.addAll(
+          find(query.toString(), Sort.by("name"), parameters)
+              .page(Page.ofSize(limit))
+              .list());
+      if (page.size() == limit) {
+        return page;
+      }
+    }
+
+    StringBuilder query = new StringBuilder("name is null");
+    Parameters parameters = new Parameters();
+    if (after != null && after.name() == null) {
+      query.append(" and id > :afterId");
+      parameters.and("afterId", after.id());
+    }
+    filter(query, parameters, minPrice, maxPrice, inStockOnly);
+    page.addAll(
+        find(query.toString(), Sort.by("id"), parameters)
+            .page(Page.ofSize(limit - page.size()))
+            .list());
+    return page;
+  }
+
+  private static void filter(
+      StringBuilder query,
+      Parameters parameters,
+      BigDecimal minPrice,
+      BigDecimal maxPrice,
+      boolean inStockOnly) {
+    if (minPrice != null) {
+      query.append(" and price >= :minPrice");
+      parameters.and("minPrice", minPrice);
+    }
+    if (maxPrice != null) {
+      query.append(" and price <= :maxPrice");
+      parameters.and("maxPrice", maxPrice);
+    }
+    if (inStockOnly) {
+      query.append(" and stock > 0");
+    }
+  }
+
+  /**
+   * Applies the stock adjustments in order, each as a single conditional UPDATE of the product's
+   * row, sent to the database as one JDBC batch. Concurrent adjustments of the same product queue
+   * on its row lock instead of overwriting each other, and nothing is read first.
+   *
+   * <p>The rows change behind Hibernate's back, so products already loaded in the caller's session
+   * are not refreshed. The adjusted products are evicted from the second-level cache right away and
+   * again once the transaction completes, so a read racing with the update cannot cache the old
+   * stock.
+   *
+   * @return for every adjustment, whether it was applied; it is not when the product does not
+   *     exist or has too little stock
+   */
+  public boolean[] adjustStock(List<StockAdjustment> adjustments) {
+    boolean[] applied = new boolean[adjustments.size()];
+    getEntityManager()
+        .unwrap(Session.class)
+        .doWork(
+            connection -> {
+              try (PreparedStatement statement = connection.prepareStatement(ADJUST_STOCK)) {
+                for (StockAdjustment adjustment : adjustments) {
+                  statement.setInt(1, adjustment.delta());
+                  statement.setLong(2, adjustment.productId());
+                  statement.setInt(3, adjustment.delta());
+                  statement.addBatch();
+                }
+                int[] updated = statement.executeBatch();
+                for (int i = 0; i < updated.length; i++) {
+                  applied[i] = updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO;
+                }
+              }
+            });
+
+    List<Long> adjusted = new ArrayList<>();
+    for (int i = 0; i < applied.length; i++) {
+      if (applied[i]) {
+        adjusted.add(adjustments.get(i).productId());
+      }
+    }
+    evict(adjusted);
+    return applied;
+  }
+
+  /** Which of the products exist. */
+  public Set<Long> findExistingIds(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return new HashSet<>();
+    }
+    return new HashSet<>(
+        getEntityManager()
+            .createQuery("select p.id from Product p where p.id in :ids", Long.class)
+            .setParameter("ids", ids)
+            .getResultList());
+  }
+
+  private void evict(List<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    Cache cache = getEntityManager().getEntityManagerFactory().getCache();
+    ids.forEach(id -> cache.evict(Product.class, id));
+    if (transactions.getTransactionStatus() != Status.STATUS_NO_TRANSACTION) {
+      transactions.registerInterposedSynchronization(
+          new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+              ids.forEach(id -> cache.evict(Product.class, id));
+            }
+          });
+    }
+  }
+}
@@ -1,6 +1,9 @@
 package com.fulfilment.application.monolith.products;
 
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.infrastructure.persistence.CollectionVersions;
+import com.fulfilment.application.monolith.infrastructure.rest.CollectionETag;
+import com.fulfilment.application.monolith.infrastructure.rest.EntityTags;
+import com.fulfilment.application.monolith.infrastructure.rest.SmileMessageBodyHandler;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -11,9 +14,17 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.jboss.logging.Logger;
 
 @Path("product")
@@ -24,24 +35,67 @@ public class ProductResource {
 
   @Inject ProductRepository productRepository;
 
+  @Inject CollectionVersions collectionVersions;
+
   private static final Logger LOGGER = Logger.getLogger(ProductResource.class.getName());
 
+  static final int DEFAULT_PAGE_SIZE = 500;
+  static final int MAX_PAGE_SIZE = 1000;
+  static final int MAX_BATCH_SIZE = 1000;
+
+  /**
+   * A page of the catalogue, ordered by name, of {@value #DEFAULT_PAGE_SIZE} products unless a
+   * limit is given. When the page is full, a {@code Link} header with {@code rel="next"} points to
+   * the next one: the same filters, from the cursor after its last product.
+   */
   @GET
-  public List<Product> get() {
-    LOGGER.info("Listing all products");
-    return productRepository.listAll(Sort.by("name"));
+  @Produces({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE})
+  @CollectionETag(CollectionVersions.PRODUCTS)
+  public Response get(
+      @QueryParam("limit") Integer limit,
+      @QueryParam("cursor") String cursor,
+      @QueryParam("minPrice") BigDecimal minPrice,
+      @QueryParam("maxPrice") BigDecimal maxPrice,
+      @QueryParam("inStock") boolean inStockOnly,
+      @Context UriInfo uriInfo) {
+    LOGGER.infof("Listing products after cursor: %s", cursor);
+    if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+      throw new WebApplicationException("minPrice must not be greater than maxPrice", 400);
+    }
+    int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+    if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+      LOGGER.warnf("Invalid page size requested: %d", limit);
+      throw new WebApplicationException("limit must be between 1 and " + MAX_PAGE_SIZE, 400);
+    }
+    ProductCursor after = null;
+    if (cursor != null) {
+      try {
+        after = ProductCursor.decode(cursor);
+      } catch (IllegalArgumentException e) {
+        LOGGER.warnf("Invalid cursor requested: %s", cursor);
+        throw new WebApplicationException("Invalid cursor", 400);
+      }
+    }
+
+    List<Product> page = productRepository.findPage(after, minPrice, maxPrice, inStockOnly, pageSize);
+    Response.ResponseBuilder response = Response.ok(page);
+    if (page.size() == pageSize) {
+      String next = ProductCursor.after(page.get(page.size() - 1)).encode();
+      response.link(uriInfo.getRequestUriBuilder().replaceQueryParam("cursor", next).build(), "next");
+    }
+    return response.build();
   }
 
   @GET
   @Path("{id}")
-  public Product getSingle(Long id) {
+  public Response getSingle(Long id, @Context Request request) {
     LOGGER.infof("Getting product by ID: %d", id);
     Product entity = productRepository.findById(id);
     if (entity == null) {
       LOGGER.warnf("Product not found with ID: %d", id);
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
-    return entity;
+    return EntityTags.conditionalGet(request, entity, entity.version);
   }
 
   @POST
@@ -54,14 +108,15 @@ public class ProductResource {
     }
 
     productRepository.persist(product);
+    collectionVersions.changed(CollectionVersions.PRODUCTS);
     LOGGER.infof("Product persisted with ID: %d", product.id);
-    return Response.ok(product).status(201).build();
+    return Response.ok(product).status(201).tag(EntityTags.of(product.version)).build();
   }
 
   @PUT
   @Path("{id}")
   @Transactional
-  public Product update(Long id, Product product) {
+  public Response update(Long id, Product product, @Context Request request) {
     LOGGER.infof("Updating product with ID: %d", id);
     if (product.name == null) {
       LOGGER.warnf("Product Name not set in update request for ID: %d", id);
@@ -74,29 +129,118 @@ public class ProductResource {
       LOGGER.warnf("Product not found for update with ID: %d", id);
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
+    EntityTags.checkPreconditions(request, entity.version);
 
     entity.name = product.name;
     entity.description = product.description;
     entity.price = product.price;
     entity.stock = product.stock;
 
-    productRepository.persist(entity);
+    // a concurrent update of the same version fails here, as an OptimisticLockException (409)
+    productRepository.persistAndFlush(entity);
+    collectionVersions.changed(CollectionVersions.PRODUCTS);
     LOGGER.infof("Product updated with ID: %d", id);
 
-    return entity;
+    return EntityTags.updated(entity, entity.version);
+  }
+
+  /**
+   * Adds the signed delta to the product's stock in a single conditional UPDATE, without reading
+   * the product. Answers 409 when the stock would drop below zero, leaving it unchanged.
+   */
+  @POST
+  @Path("{id}/stock-adjustments")
+  @Transactional
+  public Response adjustStock(Long id, StockAdjustment adjustment) {
+    LOGGER.infof("Adjusting stock of product with ID: %d", id);
+    if (adjustment == null || adjustment.delta() == null || adjustment.delta() == 0) {
+      LOGGER.warnf("Stock delta not set in adjustment request for ID: %d", id);
+      throw new WebApplicationException("Stock delta was not set on request.", 422);
+    }
+    if (adjustment.productId() != null && !adjustment.productId().equals(id)) {
+      throw new WebApplicationException("Product id on request does not match the path.", 422);
+    }
+
+    if (!productRepository.adjustStock(List.of(new StockAdjustment(id, adjustment.delta())))[0]) {
+      if (productRepository.findExistingIds(List.of(id)).isEmpty()) {
+        LOGGER.warnf("Product not found for stock adjustment with ID: %d", id);
+        throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
+      }
+      LOGGER.warnf(
+          "Insufficient stock for adjustment of %d on product ID: %d", adjustment.delta(), id);
+      throw new WebApplicationException("Product with id of " + id + " has insufficient stock.", 409);
+    }
+    collectionVersions.changed(CollectionVersions.PRODUCTS);
+    return Response.status(204).build();
+  }
+
+  /**
+   * Applies up to {@value #MAX_BATCH_SIZE} stock adjustments, in order, as one statement batch in a
+   * single transaction. An adjustment that cannot be applied is reported and skipped without
+   * preventing the others.
+   */
+  @POST
+  @Path("stock-adjustments")
+  @Transactional
+  public List<StockAdjustmentResult> adjustStocks(List<StockAdjustment> adjustments) {
+    if (adjustments == null || adjustments.isEmpty() || adjustments.size() > MAX_BATCH_SIZE) {
+      LOGGER.warnf(
+          "Invalid stock adjustment batch size: %d", adjustments == null ? 0 : adjustments.size());
+      throw new WebApplicationException(
+          "A batch must hold between 1 and " + MAX_BATCH_SIZE + " adjustments", 400);
+    }
+    for (StockAdjustment adjustment : adjustments) {
+      if (adjustment == null
+          || adjustment.productId() == null
+          || adjustment.delta() == null
+          || adjustment.delta() == 0) {
+        throw new WebApplicationException("Every adjustment needs a productId and a delta.", 422);
+      }
+    }
+    LOGGER.infof("Applying a batch of %d stock adjustments", adjustments.size());
+
+    boolean[] applied = productRepository.adjustStock(adjustments);
+    List<Long> failed = new ArrayList<>();
+    for (int i = 0; i < applied.length; i++) {
+      if (!applied[i]) {
+        failed.add(adjustments.get(i).productId());
+      }
+    }
+    Set<Long> existing = productRepository.findExistingIds(failed);
+
+    List<StockAdjustmentResult> results = new ArrayList<>(adjustments.size());
+    for (int i = 0; i < applied.length; i++) {
+      StockAdjustment adjustment = adjustments.get(i);
+      StockAdjustmentResult.Status status;
+      if (applied[i]) {
+        status = StockAdjustmentResult.Status.APPLIED;
+      } else if (existing.contains(adjustment.productId())) {
+        status = StockAdjustmentResult.Status.INSUFFICIENT_STOCK;
+      } else {
+        status = StockAdjustmentResult.Status.NOT_FOUND;
+      }
+      results.add(new StockAdjustmentResult(adjustment.productId(), adjustment.delta(), status));
+    }
+    if (failed.size() < applied.length) {
+      collectionVersions.changed(CollectionVersions.PRODUCTS);
+    }
+    return results;
   }
 
   @DELETE
   @Path("{id}")
   @Transactional
-  public Response delete(Long id) {
+  public Response delete(Long id, @Context Request request) {
     LOGGER.infof("Deleting product with ID: %d", id);
     Product entity = productRepository.findById(id);
     if (entity == null) {
       LOGGER.warnf("Product not found for deletion with ID: %d", id);
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
+    EntityTags.checkPreconditions(request, entity.version);
     productRepository.delete(entity);
+    productRepository.flush();
+    collectionVersions.changed(CollectionVersions.PRODUCTS);
     LOGGER.infof("Product deleted with ID: %d", id);
     return Response.status(204).build();
   }
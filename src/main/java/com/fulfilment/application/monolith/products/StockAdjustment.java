@@ -0,0 +1,8 @@
+package com.fulfilment.application.monolith.products;
+
+/**
+ * A signed change to the stock of a product: negative when items were picked, positive when they
+ * were received. {@code productId} is only read by the batch endpoint; the single one takes it from
+ * the path.
+ */
+public record StockAdjustment(Long productId, Integer delta) {}
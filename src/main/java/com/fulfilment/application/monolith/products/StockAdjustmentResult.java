@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.products;
+
+/** Outcome of one adjustment of a batch, reported in request order. */
+public record StockAdjustmentResult(Long productId, int delta, Status status) {
+
+  public enum Status {
+    APPLIED,
+    /** The stock would have dropped below zero; it was left unchanged. */
+    INSUFFICIENT_STOCK,
+    NOT_FOUND
+  }
+}
@@ -0,0 +1,25 @@
+package com.fulfilment.application.monolith.stores;
+
+/** A store change as sent to the legacy system. */
+public final class LegacyStoreChange {
+
+  public enum Type {
+    CREATED,
+    UPDATED
+  }
+
+  public final Type type;
+
+  public final Long storeId;
+
+  public final String name;
+
+  public final int quantityProductsInStock;
+
+  public LegacyStoreChange(Type type, Long storeId, String name, int quantityProductsInStock) {
+    this.type = type;
+    this.storeId = storeId;
+    this.name = name;
+    this.quantityProductsInStock = quantityProductsInStock;
+  }
+}
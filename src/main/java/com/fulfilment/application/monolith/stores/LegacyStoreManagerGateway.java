@@ -1,55 +1,75 @@
 package com.fulfilment.application.monolith.stores;
 
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
-import java.nio.file.Files;
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 
+/**
+ * Emulates the legacy store system, which picks store changes up from append-only segment files
+ * (see {@link LegacyStoreSegmentWriter}).
+ */
 @ApplicationScoped
 public class LegacyStoreManagerGateway {
 
   private static final Logger LOGGER = Logger.getLogger(LegacyStoreManagerGateway.class);
 
+  private final LegacyStoreSegmentWriter writer;
+
+  @Inject
+  public LegacyStoreManagerGateway(
+      @ConfigProperty(name = "legacy-store.export.directory") Path directory,
+      @ConfigProperty(name = "legacy-store.export.segment-size", defaultValue = "64M")
+          MemorySize segmentSize,
+      @ConfigProperty(name = "legacy-store.export.buffer-size", defaultValue = "64K")
+          MemorySize bufferSize,
+      @ConfigProperty(name = "legacy-store.export.retained-segments", defaultValue = "8")
+          int retainedSegments,
+      @ConfigProperty(name = "legacy-store.export.fsync", defaultValue = "true") boolean fsync) {
+    this.writer =
+        new LegacyStoreSegmentWriter(
+            directory,
+            segmentSize.asLongValue(),
+            (int) bufferSize.asLongValue(),
+            retainedSegments,
+            fsync);
+  }
+
   public void createStoreOnLegacySystem(Store store) {
-    // just to emulate as this would send this to a legacy system, let's write a temp file with the
-    writeToFile(store);
+    export(LegacyStoreChange.Type.CREATED, store);
   }
 
   public void updateStoreOnLegacySystem(Store store) {
-    // just to emulate as this would send this to a legacy system, let's write a temp file with the
-    writeToFile(store);
+    export(LegacyStoreChange.Type.UPDATED, store);
   }
 
-  private void writeToFile(Store store) {
-    try {
-      // Step 1: Create a temporary file
-      Path tempFile;
-
-      tempFile = Files.createTempFile(store.name, ".txt");
-
-      LOGGER.infof("Temporary file created at: %s", tempFile.toString());
-
-      // Step 2: Write data to the temporary file
-      String content =
-          "Store created. [ name ="
-              + store.name
-              + " ] [ items on stock ="
-              + store.quantityProductsInStock
-              + "]";
-      Files.write(tempFile, content.getBytes());
-      LOGGER.info("Data written to temporary file.");
-
-      // Step 3: Optionally, read the data back to verify
-      String readContent = new String(Files.readAllBytes(tempFile));
-      LOGGER.infof("Data read from temporary file: %s", readContent);
-
-      // Step 4: Delete the temporary file when done
-      Files.delete(tempFile);
-      LOGGER.info("Temporary file deleted.");
+  /**
+   * Sends a batch of store changes to the legacy system in a single write. Unlike the single-store
+   * calls, a failure is reported to the caller so that the batch can be retried.
+   */
+  public void syncStoresOnLegacySystem(List<LegacyStoreChange> changes) throws IOException {
+    long bytes = writer.append(changes);
+    LOGGER.debugf("Synced %d store changes with legacy system (%d bytes)", changes.size(), bytes);
+  }
 
+  private void export(LegacyStoreChange.Type type, Store store) {
+    try {
+      writer.append(
+          List.of(
+              new LegacyStoreChange(type, store.id, store.name, store.quantityProductsInStock)));
     } catch (Exception e) {
       LOGGER.error("Error writing store to legacy system file", e);
     }
   }
+
+  @PreDestroy
+  void close() throws IOException {
+    writer.close();
+  }
 }
@@ -0,0 +1,211 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.LockMode;
+import org.hibernate.jpa.HibernateHints;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Relays the store outbox to the legacy system. Every poll drains the outbox in batches, oldest
+ * first: the changes of a batch are coalesced per store, so the legacy system gets the latest state
+ * of each store once, in a single write, after which the batch is deleted in the same transaction.
+ *
+ * <p>A batch claims up to batch-size stores with all their pending changes, so the changes of a
+ * store are never split between two instances relaying at the same time.
+ *
+ * <p>Changes are debounced per store: a store is only relayed once it has not changed for the
+ * debounce window, so a burst of updates reaches the legacy system as its final state. A store that
+ * keeps changing is relayed anyway once its oldest pending change is older than the max delay.
+ *
+ * <p>Delivery is at-least-once: a batch whose legacy write fails (or whose deletion does not commit)
+ * stays in the outbox and is sent again, after an exponential backoff.
+ */
+@ApplicationScoped
+public class LegacyStoreOutboxRelay {
+
+  private static final Logger LOGGER = Logger.getLogger(LegacyStoreOutboxRelay.class);
+
+  private final LegacyStoreManagerGateway legacyStoreManagerGateway;
+  private final int batchSize;
+  private final Duration debounceWindow;
+  private final Duration maxDelay;
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+
+  private final Timer writeTimer;
+  private final DistributionSummary batchSizes;
+  private final Counter relayed;
+  private final Counter coalesced;
+  private final Counter failures;
+  private final AtomicLong pending = new AtomicLong();
+  private final AtomicReference<LocalDateTime> oldestPending = new AtomicReference<>();
+
+  private Duration backoff = Duration.ZERO;
+  private long nextAttemptAt;
+
+  @Inject
+  public LegacyStoreOutboxRelay(
+      LegacyStoreManagerGateway legacyStoreManagerGateway,
+      MeterRegistry meterRegistry,
+      @ConfigProperty(name = "legacy-store.outbox.batch-size", defaultValue = "100") int batchSize,
+      @ConfigProperty(name = "legacy-store.outbox.debounce-window", defaultValue = "1s")
+          Duration debounceWindow,
+      @ConfigProperty(name = "legacy-store.outbox.max-delay", defaultValue = "10s")
+          Duration maxDelay,
+      @ConfigProperty(name = "legacy-store.outbox.initial-backoff", defaultValue = "1s")
+          Duration initialBackoff,
+      @ConfigProperty(name = "legacy-store.outbox.max-backoff", defaultValue = "1m")
+          Duration maxBackoff) {
+    this.legacyStoreManagerGateway = legacyStoreManagerGateway;
+    this.batchSize = batchSize;
+    this.debounceWindow = debounceWindow;
+    this.maxDelay = maxDelay;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+
+    this.writeTimer = meterRegistry.timer("legacy.store.outbox.write");
+    this.batchSizes = meterRegistry.summary("legacy.store.outbox.batch.size");
+    this.relayed = meterRegistry.counter("legacy.store.outbox.relayed");
+    this.coalesced = meterRegistry.counter("legacy.store.outbox.coalesced");
+    this.failures = meterRegistry.counter("legacy.store.outbox.failures");
+    this.nextAttemptAt = System.nanoTime();
+    Gauge.builder("legacy.store.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+    TimeGauge.builder(
+            "legacy.store.outbox.lag", this, TimeUnit.MILLISECONDS, LegacyStoreOutboxRelay::lagMillis)
+        .register(meterRegistry);
+  }
+
+  @Scheduled(
+      every = "${legacy-store.outbox.poll-interval:1s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void poll() {
+    if (System.nanoTime() - nextAttemptAt < 0) {
+      return;
+    }
+    relay();
+  }
+
+  /**
+   * Sends everything currently in the outbox to the legacy system.
+   *
+   * @return whether the outbox was drained; false when a legacy write failed
+   */
+  public synchronized boolean relay() {
+    try {
+      int relayedInBatch;
+      do {
+        relayedInBatch = QuarkusTransaction.requiringNew().call(this::relayBatch);
+      } while (relayedInBatch == batchSize);
+      backoff = Duration.ZERO;
+      nextAttemptAt = System.nanoTime();
+      return true;
+    } catch (Exception e) {
+      failures.increment();
+      backoff = backoff.isZero() ? initialBackoff : min(backoff.multipliedBy(2), maxBackoff);
+      nextAttemptAt = System.nanoTime() + backoff.toNanos();
+      LOGGER.warnf(
+          "Relaying store outbox to legacy system failed, retrying in %d ms: %s",
+          backoff.toMillis(),
+          e.getMessage());
+      return false;
+    } finally {
+      QuarkusTransaction.requiringNew().run(this::refreshBacklog);
+    }
+  }
+
+  private int relayBatch() throws Exception {
+    LocalDateTime now = LocalDateTime.now();
+    // a store is claimed by locking its oldest entry; SKIP LOCKED lets several instances relay side
+    // by side while every store, and so the order of its changes, stays with a single instance
+    List<Long> storeIds =
+        StoreOutboxEntry.<StoreOutboxEntry>find(
+                "id in (select min(f.id) from StoreOutboxEntry f group by f.storeId)"
+                    + " and (storeId not in (select r.storeId from StoreOutboxEntry r where r.createdAt > ?1)"
+                    + " or storeId in (select o.storeId from StoreOutboxEntry o where o.createdAt <= ?2))",
+                Sort.by("id"),
+                now.minus(debounceWindow),
+                now.minus(maxDelay))
+            .withLock(LockModeType.PESSIMISTIC_WRITE)
+            .withHint(HibernateHints.HINT_NATIVE_LOCK_MODE, LockMode.UPGRADE_SKIPLOCKED)
+            .page(0, batchSize)
+            .stream()
+            .map(e -> e.storeId)
+            .toList();
+    if (storeIds.isEmpty()) {
+      return 0;
+    }
+    List<StoreOutboxEntry> entries =
+        StoreOutboxEntry.<StoreOutboxEntry>find("storeId in ?1", Sort.by("id"), storeIds).list();
+
+    List<LegacyStoreChange> changes = coalesce(entries);
+    long start = System.nanoTime();
+    legacyStoreManagerGateway.syncStoresOnLegacySystem(changes);
+    writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    batchSizes.record(changes.size());
+
+    StoreOutboxEntry.delete("id in ?1", entries.stream().map(e -> e.id).toList());
+    relayed.increment(entries.size());
+    coalesced.increment(entries.size() - changes.size());
+    LOGGER.debugf("Relayed %d outbox entries as %d legacy changes", entries.size(), changes.size());
+    return storeIds.size();
+  }
+
+  /**
+   * One change per store, holding its latest state. A store created within the batch is sent as
+   * created, whatever updates followed.
+   */
+  static List<LegacyStoreChange> coalesce(List<StoreOutboxEntry> entries) {
+    Map<Long, LegacyStoreChange> latest = new LinkedHashMap<>();
+    for (StoreOutboxEntry entry : entries) {
+      LegacyStoreChange previous = latest.get(entry.storeId);
+      LegacyStoreChange.Type type =
+          previous != null && previous.type == LegacyStoreChange.Type.CREATED
+              ? LegacyStoreChange.Type.CREATED
+              : entry.type;
+      latest.put(
+          entry.storeId,
+          new LegacyStoreChange(type, entry.storeId, entry.name, entry.quantityProductsInStock));
+    }
+    return List.copyOf(latest.values());
+  }
+
+  private void refreshBacklog() {
+    Object[] backlog =
+        StoreOutboxEntry.getEntityManager()
+            .createQuery("select count(e), min(e.createdAt) from StoreOutboxEntry e", Object[].class)
+            .getSingleResult();
+    pending.set(((Number) backlog[0]).longValue());
+    oldestPending.set((LocalDateTime) backlog[1]);
+  }
+
+  // age of the oldest change not yet sent to the legacy system
+  private double lagMillis() {
+    LocalDateTime oldest = oldestPending.get();
+    return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis();
+  }
+
+  private static Duration min(Duration a, Duration b) {
+    return a.compareTo(b) <= 0 ? a : b;
+  }
+}
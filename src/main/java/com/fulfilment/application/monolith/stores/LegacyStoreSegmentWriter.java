@@ -0,0 +1,210 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Appends store changes, one line each, to rolling segment files read by the legacy system
+ * ({@code legacy-stores-00000000000000000000.log}, {@code ...01.log}, ...).
+ *
+ * <p>Records are encoded straight into a reusable direct buffer and written with a single channel
+ * write per buffer, so a change is copied once on its way to the file. A segment is rolled before
+ * it would exceed its size, always on a record boundary, and all records of one {@link #append}
+ * call are forced to disk together (group fsync). After a restart, appending resumes on the latest
+ * segment.
+ */
+final class LegacyStoreSegmentWriter implements Closeable {
+
+  private static final String SEGMENT_PREFIX = "legacy-stores-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  private final Path directory;
+  private final long segmentSize;
+  private final int retainedSegments;
+  private final boolean fsync;
+
+  private final ByteBuffer buffer;
+  private final StringBuilder record = new StringBuilder(128);
+  private final CharsetEncoder encoder =
+      StandardCharsets.UTF_8
+          .newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+  private FileChannel segment;
+  private long segmentNumber;
+  private long segmentPosition;
+
+  LegacyStoreSegmentWriter(
+      Path directory, long segmentSize, int bufferSize, int retainedSegments, boolean fsync) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.retainedSegments = retainedSegments;
+    this.fsync = fsync;
+    this.buffer = ByteBuffer.allocateDirect(bufferSize);
+  }
+
+  /**
+   * Appends the changes and, when fsync is enabled, forces them to disk before returning.
+   *
+   * @return the number of bytes appended
+   */
+  synchronized long append(List<LegacyStoreChange> changes) throws IOException {
+    try {
+      if (segment == null) {
+        openLatestSegment();
+      }
+      long appended = 0;
+      for (LegacyStoreChange change : changes) {
+        appended += encode(change);
+      }
+      flush();
+      if (fsync) {
+        segment.force(false);
+      }
+      return appended;
+    } catch (IOException | RuntimeException e) {
+      // start over from a fresh channel and an empty buffer; the caller retries the whole batch
+      buffer.clear();
+      closeSegment();
+      throw e;
+    }
+  }
+
+  private int encode(LegacyStoreChange change) throws IOException {
+    record.setLength(0);
+    record
+        .append(change.type == LegacyStoreChange.Type.CREATED ? "Store created." : "Store updated.")
+        .append(" [ id = ")
+        .append(change.storeId)
+        .append(" ] [ name =")
+        .append(change.name)
+        .append(" ] [ items on stock =")
+        .append(change.quantityProductsInStock)
+        .append("]\n");
+
+    int start = buffer.position();
+    if (encodeRecord()) {
+      return buffer.position() - start;
+    }
+    // the buffer is full: write out the records before this one and encode it again
+    buffer.position(start);
+    flush();
+    if (!encodeRecord()) {
+      throw new IOException(
+          "Store change of " + record.length() + " characters does not fit the export buffer");
+    }
+    return buffer.position();
+  }
+
+  private boolean encodeRecord() {
+    encoder.reset();
+    CoderResult result = encoder.encode(CharBuffer.wrap(record), buffer, true);
+    return !result.isOverflow() && !encoder.flush(buffer).isOverflow();
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    if (segmentPosition > 0 && segmentPosition + buffer.remaining() > segmentSize) {
+      roll();
+    }
+    while (buffer.hasRemaining()) {
+      segmentPosition += segment.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  private void roll() throws IOException {
+    if (fsync) {
+      segment.force(false);
+    }
+    segment.close();
+    openSegment(segmentNumber + 1);
+
+    long oldestRetained = segmentNumber - retainedSegments + 1;
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        long number = segmentNumber(file);
+        if (number >= 0 && number < oldestRetained) {
+          Files.deleteIfExists(file);
+        }
+      }
+    }
+  }
+
+  private void openLatestSegment() throws IOException {
+    Files.createDirectories(directory);
+    try (Stream<Path> files = Files.list(directory)) {
+      openSegment(
+          files
+              .mapToLong(LegacyStoreSegmentWriter::segmentNumber)
+              .filter(number -> number >= 0)
+              .max()
+              .orElse(0));
+    }
+  }
+
+  private void openSegment(long number) throws IOException {
+    segment =
+        FileChannel.open(
+            segmentPath(number),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+    segmentNumber = number;
+    segmentPosition = segment.size();
+  }
+
+  Path segmentPath(long number) {
+    return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+  }
+
+  private static long segmentNumber(Path file) {
+    String name = file.getFileName().toString();
+    if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+      return -1;
+    }
+    try {
+      return Long.parseLong(
+          name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private void closeSegment() {
+    if (segment != null) {
+      try {
+        segment.close();
+      } catch (IOException ignored) {
+        // the channel is dropped either way
+      }
+      segment = null;
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (segment != null) {
+      try {
+        if (fsync) {
+          segment.force(false);
+        }
+      } finally {
+        closeSegment();
+      }
+    }
+  }
+}
@@ -1,19 +1,33 @@
 package com.fulfilment.application.monolith.stores;
 
-import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 
 @Entity
 @Cacheable
-public class Store extends PanacheEntity {
+public class Store extends PanacheEntityBase {
+
+  // declared explicitly instead of inheriting PanacheEntity's id to control the sequence allocation
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "store_seq")
+  @SequenceGenerator(name = "store_seq", allocationSize = 50)
+  public Long id;
 
   @Column(length = 40, unique = true)
   public String name;
 
   public int quantityProductsInStock;
 
+  // incremented by every update; concurrent updates of the same version fail instead of overwriting
+  @Version public long version;
+
   public Store() {}
 
   public Store(String name) {
@@ -0,0 +1,61 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * A store change waiting to be sent to the legacy system. Written in the same transaction as the
+ * change itself, so a committed change is never lost, and deleted by {@link LegacyStoreOutboxRelay}
+ * once the legacy system has it.
+ */
+@Entity
+// the relay looks up the latest change of each store to debounce it
+@Table(
+    name = "store_outbox",
+    indexes = @Index(name = "store_outbox_store_idx", columnList = "storeId, createdAt"))
+public class StoreOutboxEntry extends PanacheEntityBase {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "store_outbox_seq")
+  @SequenceGenerator(name = "store_outbox_seq", allocationSize = 50)
+  public Long id;
+
+  public Long storeId;
+
+  @Enumerated(EnumType.STRING)
+  public LegacyStoreChange.Type type;
+
+  // state of the store when the change was committed
+  public String name;
+
+  public int quantityProductsInStock;
+
+  public LocalDateTime createdAt;
+
+  public StoreOutboxEntry() {}
+
+  /** Adds the current state of {@code store} to the outbox of the running transaction. */
+  public static void record(LegacyStoreChange.Type type, Store store) {
+    StoreOutboxEntry entry = new StoreOutboxEntry();
+    entry.storeId = store.id;
+    entry.type = type;
+    entry.name = store.name;
+    entry.quantityProductsInStock = store.quantityProductsInStock;
+    entry.createdAt = LocalDateTime.now();
+    entry.persist();
+  }
+
+  public LegacyStoreChange toChange() {
+    return new LegacyStoreChange(type, storeId, name, quantityProductsInStock);
+  }
+}
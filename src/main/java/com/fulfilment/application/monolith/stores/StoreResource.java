@@ -1,11 +1,12 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fulfilment.application.monolith.infrastructure.persistence.CollectionVersions;
+import com.fulfilment.application.monolith.infrastructure.rest.CollectionETag;
+import com.fulfilment.application.monolith.infrastructure.rest.EntityTags;
+import com.fulfilment.application.monolith.infrastructure.rest.SmileMessageBodyHandler;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.transaction.Status;
-import jakarta.transaction.Synchronization;
-import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
@@ -16,6 +17,9 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.jboss.logging.Logger;
 
@@ -27,12 +31,13 @@ import java.util.List;
 @Consumes("application/json")
 public class StoreResource {
 
-  @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
-  @Inject TransactionSynchronizationRegistry transactionSynchronizationRegistry;
-
   private static final Logger LOGGER = Logger.getLogger(StoreResource.class.getName());
 
+  @Inject CollectionVersions collectionVersions;
+
   @GET
+  @Produces({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE})
+  @CollectionETag(CollectionVersions.STORES)
   public List<Store> get() {
     LOGGER.info("Listing all stores");
     return Store.listAll(Sort.by("name"));
@@ -40,14 +45,14 @@ public class StoreResource {
 
   @GET
   @Path("{id}")
-  public Store getSingle(Long id) {
+  public Response getSingle(Long id, @Context Request request) {
     LOGGER.infof("Getting store by ID: %d", id);
     Store entity = Store.findById(id);
     if (entity == null) {
       LOGGER.warnf("Store not found with ID: %d", id);
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
-    return entity;
+    return EntityTags.conditionalGet(request, entity, entity.version);
   }
 
   @POST
@@ -62,27 +67,18 @@ public class StoreResource {
     store.persist();
     LOGGER.infof("Store persisted with ID: %d", store.id);
 
-    transactionSynchronizationRegistry.registerInterposedSynchronization(
-        new Synchronization() {
-          @Override
-          public void beforeCompletion() {}
-
-          @Override
-          public void afterCompletion(int status) {
-            if (status == Status.STATUS_COMMITTED) {
-              LOGGER.infof("Transaction committed, syncing store %d with legacy system", store.id);
-              legacyStoreManagerGateway.createStoreOnLegacySystem(store);
-            }
-          }
-        });
-
-    return Response.ok(store).status(201).build();
+    // sent to the legacy system by LegacyStoreOutboxRelay once this transaction commits
+    StoreOutboxEntry.record(LegacyStoreChange.Type.CREATED, store);
+    Store.flush();
+    collectionVersions.changed(CollectionVersions.STORES);
+
+    return Response.ok(store).status(201).tag(EntityTags.of(store.version)).build();
   }
 
   @PUT
   @Path("{id}")
   @Transactional
-  public Store update(Long id, Store updatedStore) {
+  public Response update(Long id, Store updatedStore, @Context Request request) {
     LOGGER.infof("Updating store with ID: %d", id);
     if (updatedStore.name == null) {
       LOGGER.warnf("Store Name not set in update request for ID: %d", id);
@@ -95,31 +91,23 @@ public class StoreResource {
       LOGGER.warnf("Store not found for update with ID: %d", id);
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
+    EntityTags.checkPreconditions(request, entity.version);
 
     entity.name = updatedStore.name;
     entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
 
-    transactionSynchronizationRegistry.registerInterposedSynchronization(
-        new Synchronization() {
-          @Override
-          public void beforeCompletion() {}
-
-          @Override
-          public void afterCompletion(int status) {
-            if (status == Status.STATUS_COMMITTED) {
-              LOGGER.infof("Transaction committed, syncing updated store %d with legacy system", id);
-              legacyStoreManagerGateway.updateStoreOnLegacySystem(entity);
-            }
-          }
-        });
-
-    return entity;
+    StoreOutboxEntry.record(LegacyStoreChange.Type.UPDATED, entity);
+
+    // a concurrent update of the same version fails here, as an OptimisticLockException (409)
+    Store.flush();
+    collectionVersions.changed(CollectionVersions.STORES);
+    return EntityTags.updated(entity, entity.version);
   }
 
   @PATCH
   @Path("{id}")
   @Transactional
-  public Store patch(Long id, Store updatedStore) {
+  public Response patch(Long id, Store updatedStore, @Context Request request) {
     LOGGER.infof("Patching store with ID: %d", id);
     if (updatedStore.name == null) {
       LOGGER.warnf("Store Name not set in patch request for ID: %d", id);
@@ -132,6 +120,7 @@ public class StoreResource {
       LOGGER.warnf("Store not found for patch with ID: %d", id);
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
+    EntityTags.checkPreconditions(request, entity.version);
 
     if (entity.name != null) {
       entity.name = updatedStore.name;
@@ -141,34 +130,28 @@ public class StoreResource {
       entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
     }
 
-    transactionSynchronizationRegistry.registerInterposedSynchronization(
-        new Synchronization() {
-          @Override
-          public void beforeCompletion() {}
-
-          @Override
-          public void afterCompletion(int status) {
-            if (status == Status.STATUS_COMMITTED) {
-              LOGGER.infof("Transaction committed, syncing patched store %d with legacy system", id);
-              legacyStoreManagerGateway.updateStoreOnLegacySystem(entity);
-            }
-          }
-        });
-
-    return entity;
+    StoreOutboxEntry.record(LegacyStoreChange.Type.UPDATED, entity);
+
+    // a concurrent update of the same version fails here, as an OptimisticLockException (409)
+    Store.flush();
+    collectionVersions.changed(CollectionVersions.STORES);
+    return EntityTags.updated(entity, entity.version);
   }
 
   @DELETE
   @Path("{id}")
   @Transactional
-  public Response delete(Long id) {
+  public Response delete(Long id, @Context Request request) {
     LOGGER.infof("Deleting store with ID: %d", id);
     Store entity = Store.findById(id);
     if (entity == null) {
       LOGGER.warnf("Store not found for deletion with ID: %d", id);
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
+    EntityTags.checkPreconditions(request, entity.version);
     entity.delete();
+    Store.flush();
+    collectionVersions.changed(CollectionVersions.STORES);
     LOGGER.infof("Store deleted with ID: %d", id);
     return Response.status(204).build();
   }
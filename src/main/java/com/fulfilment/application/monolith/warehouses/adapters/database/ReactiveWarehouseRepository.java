@@ -0,0 +1,402 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.infrastructure.persistence.CollectionVersions;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlClient;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * {@link ReactiveWarehouseStore} on the reactive PostgreSQL client, against the same {@code
+ * warehouse} table as {@link WarehouseRepository}. Queries run on the event loop and hold a pooled
+ * connection only while they execute.
+ *
+ * <p>Writes bypass Hibernate, so they evict the warehouses they touch from its second-level cache
+ * (along with its business unit code queries) and from {@link WarehouseLookupCache}. Each write
+ * bumps the warehouses' {@link CollectionVersions} once it has committed, as {@link
+ * CollectionVersions#changed} does, in a statement of its own.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "warehouse.store.adapter", stringValue = "reactive")
+public class ReactiveWarehouseRepository implements ReactiveWarehouseStore {
+
+  private static final Logger LOGGER = Logger.getLogger(ReactiveWarehouseRepository.class);
+
+  // Hibernate draws DbWarehouse ids from warehouse_seq with the pooled-lo optimizer: a sequence value
+  // reserves that id and the allocationSize - 1 ids after it, so both adapters can share the sequence
+  private static final int ID_BLOCK_SIZE = 50;
+
+  private static final String LOCK_FOR_WRITE =
+      WarehouseRepository.LOCK_FOR_WRITE.replace("?1", "$1");
+
+  private static final String BUMP_VERSION = CollectionVersions.BUMP.replace("?1", "$1");
+
+  private static final String SELECT_WAREHOUSE =
+      "select id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version"
+          + " from warehouse ";
+
+  private final Pool pool;
+  private final Cache cache;
+  private final WarehouseLookupCache lookupCache;
+
+  private long nextId;
+  private long idLimit;
+
+  public ReactiveWarehouseRepository(
+      Pool pool, SessionFactory sessionFactory, WarehouseLookupCache lookupCache) {
+    this.pool = pool;
+    this.cache = sessionFactory.getCache();
+    this.lookupCache = lookupCache;
+  }
+
+  @Override
+  public Uni<List<Warehouse>> findPage(Long afterId, int limit) {
+    return findPage(pool, afterId, limit);
+  }
+
+  @Override
+  public Uni<Warehouse> findByInternalId(Long id) {
+    return findByInternalId(pool, id);
+  }
+
+  @Override
+  public Uni<Warehouse> findByBusinessUnitCode(String buCode) {
+    return findByBusinessUnitCode(pool, buCode);
+  }
+
+  @Override
+  public Uni<LocationOccupancy> getLocationOccupancy(
+      String locationIdentifier, String excludedBusinessUnitCode) {
+    return getLocationOccupancy(pool, locationIdentifier, excludedBusinessUnitCode);
+  }
+
+  @Override
+  public Uni<Void> create(Warehouse warehouse) {
+    LOGGER.infof("Creating warehouse unit in database: %s", warehouse.businessUnitCode);
+    return pool
+        .withTransaction(connection -> insert(connection, warehouse))
+        .call(() -> committed(List.of(warehouse)));
+  }
+
+  @Override
+  public Uni<Void> remove(Warehouse warehouse) {
+    LOGGER.infof("Removing (archiving) warehouse unit from database: %s", warehouse.businessUnitCode);
+    return pool
+        .withTransaction(connection -> archive(connection, warehouse))
+        .call(() -> committed(List.of(warehouse)));
+  }
+
+  @Override
+  public Uni<Void> replace(Warehouse oldWarehouse, Warehouse newWarehouse) {
+    LOGGER.infof("Replacing warehouse unit in database: %s", newWarehouse.businessUnitCode);
+    return pool
+        .withTransaction(
+            connection ->
+                archive(connection, oldWarehouse).chain(() -> insert(connection, newWarehouse)))
+        .call(() -> committed(List.of(oldWarehouse, newWarehouse)));
+  }
+
+  /**
+   * Takes the advisory locks of {@link WarehouseRepository#lockForWrite} on a connection of its own
+   * and runs the work in that connection's transaction. Once it commits, the caches are evicted of
+   * what the work wrote and the collection version is bumped.
+   */
+  @Override
+  public <T> Uni<T> inWriteTransaction(
+      Collection<String> locationIdentifiers,
+      Collection<String> buCodes,
+      Function<ReactiveWarehouseStore, Uni<T>> work) {
+    List<Warehouse> written = new ArrayList<>();
+    return pool.<T>withTransaction(
+            connection ->
+                lockForWrite(connection, locationIdentifiers, buCodes)
+                    .chain(() -> work.apply(new WriteTransaction(connection, written))))
+        .call(() -> written.isEmpty() ? nothing() : committed(written));
+  }
+
+  // one lock after the other, in the order of their keys, like WarehouseRepository.lockForWrite
+  private static Uni<Void> lockForWrite(
+      SqlClient client, Collection<String> locationIdentifiers, Collection<String> buCodes) {
+    Set<String> keys = WarehouseRepository.lockKeys(locationIdentifiers, buCodes);
+    LOGGER.debugf("Locking warehouse writes: %s", keys);
+    Uni<Void> locked = Uni.createFrom().voidItem();
+    for (String key : keys) {
+      locked =
+          locked.chain(
+              () -> client.preparedQuery(LOCK_FOR_WRITE).execute(Tuple.of(key)).replaceWithVoid());
+    }
+    return locked;
+  }
+
+  private Uni<List<Warehouse>> findPage(SqlClient client, Long afterId, int limit) {
+    LOGGER.debugf("Getting page of %d warehouses after ID: %d", limit, afterId);
+    if (afterId == null) {
+      return selectWarehouses(
+          client, "where archivedAt is null order by id limit $1", Tuple.of(limit));
+    }
+    return selectWarehouses(
+        client,
+        "where archivedAt is null and id > $1 order by id limit $2",
+        Tuple.of(afterId, limit));
+  }
+
+  private Uni<Warehouse> findByInternalId(SqlClient client, Long id) {
+    LOGGER.debugf("Finding warehouse by ID: %d", id);
+    return selectWarehouses(client, "where id = $1", Tuple.of(id))
+        .map(ReactiveWarehouseRepository::first);
+  }
+
+  private Uni<Warehouse> findByBusinessUnitCode(SqlClient client, String buCode) {
+    LOGGER.debugf("Finding warehouse by business unit code: %s", buCode);
+    return selectWarehouses(
+            client, "where businessUnitCode = $1 and archivedAt is null limit 1", Tuple.of(buCode))
+        .map(ReactiveWarehouseRepository::first);
+  }
+
+  private Uni<LocationOccupancy> getLocationOccupancy(
+      SqlClient client, String locationIdentifier, String excludedBusinessUnitCode) {
+    LOGGER.debugf(
+        "Getting occupancy of location: %s excluding: %s", locationIdentifier, excludedBusinessUnitCode);
+    String sql =
+        "select count(*), coalesce(sum(capacity), 0) from warehouse"
+            + " where location = $1 and archivedAt is null";
+    Tuple parameters = Tuple.of(locationIdentifier);
+    if (excludedBusinessUnitCode != null) {
+      sql += " and businessUnitCode <> $2";
+      parameters.addString(excludedBusinessUnitCode);
+    }
+    return client
+        .preparedQuery(sql)
+        .execute(parameters)
+        .map(
+            rows -> {
+              Row row = rows.iterator().next();
+              return new LocationOccupancy(row.getLong(0), row.getLong(1));
+            });
+  }
+
+  private Uni<Void> evictCachedWarehouses(List<Warehouse> warehouses) {
+    for (Warehouse warehouse : warehouses) {
+      cache.evictEntityData(DbWarehouse.class, warehouse.id);
+    }
+    cache.evictQueryRegion(WarehouseRepository.BY_BUSINESS_UNIT_CODE_REGION);
+    return lookupCache.evict(warehouses);
+  }
+
+  // after the commit of a write
+  private Uni<Void> committed(List<Warehouse> warehouses) {
+    return evictCachedWarehouses(warehouses).call(this::bumpVersion);
+  }
+
+  private Uni<Void> bumpVersion() {
+    return pool
+        .preparedQuery(BUMP_VERSION)
+        .execute(Tuple.of(CollectionVersions.WAREHOUSES))
+        .replaceWithVoid();
+  }
+
+  private Uni<Void> insert(SqlClient client, Warehouse warehouse) {
+    return nextId(client)
+        .chain(
+            id -> {
+              warehouse.id = id;
+              warehouse.createdAt = LocalDateTime.now();
+              return client
+                  .preparedQuery(
+                      "insert into warehouse"
+                          + " (id, businessUnitCode, location, capacity, stock, createdAt, archivedAt,"
+                          + " version) values ($1, $2, $3, $4, $5, $6, $7, 0)")
+                  .execute(
+                      Tuple.from(
+                          Arrays.asList(
+                              warehouse.id,
+                              warehouse.businessUnitCode,
+                              warehouse.location,
+                              warehouse.capacity,
+                              warehouse.stock,
+                              warehouse.createdAt,
+                              warehouse.archivedAt)));
+            })
+        .invoke(() -> warehouse.version = 0L)
+        .replaceWithVoid();
+  }
+
+  // like WarehouseRepository.update: a warehouse read at an older version than the stored one is
+  // not archived, and the caller gets an OptimisticLockException
+  private Uni<Void> archive(SqlClient client, Warehouse warehouse) {
+    warehouse.archivedAt = LocalDateTime.now();
+    Uni<RowSet<Row>> update;
+    if (warehouse.id != null && warehouse.version != null) {
+      update =
+          client
+              .preparedQuery(
+                  "update warehouse set archivedAt = $1, version = version + 1"
+                      + " where id = $2 and version = $3")
+              .execute(Tuple.of(warehouse.archivedAt, warehouse.id, warehouse.version));
+    } else if (warehouse.id != null) {
+      update =
+          client
+              .preparedQuery("update warehouse set archivedAt = $1, version = version + 1 where id = $2")
+              .execute(Tuple.of(warehouse.archivedAt, warehouse.id));
+    } else {
+      update =
+          client
+              .preparedQuery(
+                  "update warehouse set archivedAt = $1, version = version + 1"
+                      + " where businessUnitCode = $2 and archivedAt is null")
+              .execute(Tuple.of(warehouse.archivedAt, warehouse.businessUnitCode));
+    }
+    return update
+        .invoke(
+            rows -> {
+              if (rows.rowCount() > 0) {
+                if (warehouse.version != null) {
+                  warehouse.version++;
+                }
+              } else if (warehouse.version != null) {
+                throw new OptimisticLockException(
+                    "Warehouse unit " + warehouse.businessUnitCode + " was modified concurrently");
+              } else {
+                LOGGER.warnf("Warehouse unit not found for update: %s", warehouse.businessUnitCode);
+              }
+            })
+        .replaceWithVoid();
+  }
+
+  // on the connection of the transaction: one that holds a lock must not wait for the pool, whose
+  // connections may all be taken by transactions waiting for that lock
+  private Uni<Long> nextId(SqlClient client) {
+    synchronized (this) {
+      if (nextId < idLimit) {
+        return Uni.createFrom().item(nextId++);
+      }
+    }
+    return client.query("select nextval('warehouse_seq')")
+        .execute()
+        .map(
+            rows -> {
+              long lo = rows.iterator().next().getLong(0);
+              synchronized (this) {
+                nextId = lo + 1;
+                idLimit = lo + ID_BLOCK_SIZE;
+              }
+              return lo;
+            });
+  }
+
+  private static Uni<List<Warehouse>> selectWarehouses(
+      SqlClient client, String where, Tuple parameters) {
+    return client
+        .preparedQuery(SELECT_WAREHOUSE + where)
+        .execute(parameters)
+        .map(
+            rows -> {
+              List<Warehouse> warehouses = new ArrayList<>(rows.rowCount());
+              for (Row row : rows) {
+                warehouses.add(
+                    new Warehouse(
+                        row.getLong(0),
+                        row.getString(1),
+                        row.getString(2),
+                        row.getInteger(3),
+                        row.getInteger(4),
+                        row.getLocalDateTime(5),
+                        row.getLocalDateTime(6),
+                        row.getLong(7)));
+              }
+              return warehouses;
+            });
+  }
+
+  private static Uni<Void> nothing() {
+    return Uni.createFrom().voidItem();
+  }
+
+  private static Warehouse first(List<Warehouse> warehouses) {
+    return warehouses.isEmpty() ? null : warehouses.get(0);
+  }
+
+  /**
+   * The store inside {@link #inWriteTransaction}: reads and writes run on its connection, and the
+   * warehouses written are collected for the eviction after commit.
+   */
+  private final class WriteTransaction implements ReactiveWarehouseStore {
+
+    private final SqlConnection connection;
+    private final List<Warehouse> written;
+
+    private WriteTransaction(SqlConnection connection, List<Warehouse> written) {
+      this.connection = connection;
+      this.written = written;
+    }
+
+    @Override
+    public Uni<List<Warehouse>> findPage(Long afterId, int limit) {
+      return ReactiveWarehouseRepository.this.findPage(connection, afterId, limit);
+    }
+
+    @Override
+    public Uni<Warehouse> findByInternalId(Long id) {
+      return ReactiveWarehouseRepository.this.findByInternalId(connection, id);
+    }
+
+    @Override
+    public Uni<Warehouse> findByBusinessUnitCode(String buCode) {
+      return ReactiveWarehouseRepository.this.findByBusinessUnitCode(connection, buCode);
+    }
+
+    @Override
+    public Uni<LocationOccupancy> getLocationOccupancy(
+        String locationIdentifier, String excludedBusinessUnitCode) {
+      return ReactiveWarehouseRepository.this.getLocationOccupancy(
+          connection, locationIdentifier, excludedBusinessUnitCode);
+    }
+
+    @Override
+    public Uni<Void> create(Warehouse warehouse) {
+      LOGGER.infof("Creating warehouse unit in database: %s", warehouse.businessUnitCode);
+      return insert(connection, warehouse).invoke(() -> written.add(warehouse));
+    }
+
+    @Override
+    public Uni<Void> remove(Warehouse warehouse) {
+      LOGGER.infof("Removing (archiving) warehouse unit from database: %s", warehouse.businessUnitCode);
+      return archive(connection, warehouse).invoke(() -> written.add(warehouse));
+    }
+
+    @Override
+    public Uni<Void> replace(Warehouse oldWarehouse, Warehouse newWarehouse) {
+      LOGGER.infof("Replacing warehouse unit in database: %s", newWarehouse.businessUnitCode);
+      return remove(oldWarehouse).chain(() -> create(newWarehouse));
+    }
+
+    // the locks are the transaction's until it ends, so taking more of them is all that is left
+    @Override
+    public <T> Uni<T> inWriteTransaction(
+        Collection<String> locationIdentifiers,
+        Collection<String> buCodes,
+        Function<ReactiveWarehouseStore, Uni<T>> work) {
+      return lockForWrite(connection, locationIdentifiers, buCodes).chain(() -> work.apply(this));
+    }
+  }
+}
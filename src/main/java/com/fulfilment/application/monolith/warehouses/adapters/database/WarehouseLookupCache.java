@@ -0,0 +1,119 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of warehouse lookups by id and by business unit code, bounded in size and
+ * expired after a while (see {@code quarkus.cache.caffeine} in application.properties). It only serves plain reads: the
+ * lookups that guard a write go to the database. Lookups that found nothing are not cached, since
+ * the warehouse may be created at any time.
+ *
+ * <p>A written warehouse is invalidated right away and again once its transaction completes, so a
+ * lookup that raced with the write cannot leave the old state behind. Lookups made inside a
+ * transaction bypass the cache: they may see writes that are not committed yet. Callers get their
+ * own copy of a cached warehouse, which they are free to modify.
+ */
+@ApplicationScoped
+class WarehouseLookupCache {
+
+  static final String BY_ID = "warehouse-lookup-by-id";
+  static final String BY_BUSINESS_UNIT_CODE = "warehouse-lookup-by-business-unit-code";
+
+  private final Cache byId;
+  private final Cache byBusinessUnitCode;
+  private final TransactionSynchronizationRegistry transactions;
+
+  @Inject
+  WarehouseLookupCache(
+      @CacheName(BY_ID) Cache byId,
+      @CacheName(BY_BUSINESS_UNIT_CODE) Cache byBusinessUnitCode,
+      TransactionSynchronizationRegistry transactions) {
+    this.byId = byId;
+    this.byBusinessUnitCode = byBusinessUnitCode;
+    this.transactions = transactions;
+  }
+
+  Warehouse findByInternalId(Long id, Supplier<Warehouse> loader) {
+    return lookup(byId, id, loader);
+  }
+
+  Warehouse findByBusinessUnitCode(String buCode, Supplier<Warehouse> loader) {
+    return lookup(byBusinessUnitCode, buCode, loader);
+  }
+
+  /** Invalidates the warehouses now and, when called in a transaction, after it completes. */
+  void invalidate(List<Warehouse> warehouses) {
+    evict(warehouses).await().indefinitely();
+    if (inTransaction()) {
+      List<Warehouse> written = List.copyOf(warehouses);
+      transactions.registerInterposedSynchronization(
+          new Synchronization() {
+            @Override
+            public void beforeCompletion() {}
+
+            @Override
+            public void afterCompletion(int status) {
+              evict(written).await().indefinitely();
+            }
+          });
+    }
+  }
+
+  /** Invalidates the warehouses without blocking, for writes made outside of Hibernate. */
+  Uni<Void> evict(List<Warehouse> warehouses) {
+    List<Uni<Void>> invalidations = new ArrayList<>(warehouses.size() * 2);
+    for (Warehouse warehouse : warehouses) {
+      if (warehouse.id != null) {
+        invalidations.add(byId.invalidate(warehouse.id));
+      }
+      // an archived or replaced warehouse no longer answers for its code either
+      if (warehouse.businessUnitCode != null) {
+        invalidations.add(byBusinessUnitCode.invalidate(warehouse.businessUnitCode));
+      }
+    }
+    return invalidations.isEmpty()
+        ? Uni.createFrom().voidItem()
+        : Uni.combine().all().unis(invalidations).discardItems();
+  }
+
+  private <K> Warehouse lookup(Cache cache, K key, Supplier<Warehouse> loader) {
+    if (key == null || inTransaction()) {
+      return loader.get();
+    }
+    Warehouse warehouse = cache.<K, Warehouse>get(key, k -> loader.get()).await().indefinitely();
+    if (warehouse == null) {
+      cache.invalidate(key).await().indefinitely();
+    }
+    return copy(warehouse);
+  }
+
+  private boolean inTransaction() {
+    return transactions.getTransactionStatus() != Status.STATUS_NO_TRANSACTION;
+  }
+
+  private static Warehouse copy(Warehouse warehouse) {
+    return warehouse == null
+        ? null
+        : new Warehouse(
+            warehouse.id,
+            warehouse.businessUnitCode,
+            warehouse.location,
+            warehouse.capacity,
+            warehouse.stock,
+            warehouse.createdAt,
+            warehouse.archivedAt,
+            warehouse.version);
+  }
+}
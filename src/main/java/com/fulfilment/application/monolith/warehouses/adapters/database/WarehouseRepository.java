@@ -1,30 +1,120 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.infrastructure.persistence.CollectionVersions;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 import org.jboss.logging.Logger;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
+/**
+ * Writes run in their own (or the caller's) read-write transaction. Reads only join a transaction
+ * when the caller already has one; otherwise they run on the request-scoped session in auto-commit
+ * mode, without a JTA begin/flush/commit around every query.
+ *
+ * <p>{@link #findCachedByInternalId} and {@link #findCachedByBusinessUnitCode} read through {@link
+ * WarehouseLookupCache}, which every write invalidates; both serve plain reads only. The store lookups, which guard writes under {@link #lockForWrite}, always go to the
+ * database. Every write also bumps the warehouses' {@link CollectionVersions}.
+ */
 @ApplicationScoped
-@Transactional
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
   private static final Logger LOGGER = Logger.getLogger(WarehouseRepository.class);
 
+  /** Query cache region of {@link #findCachedByBusinessUnitCode}. */
+  public static final String BY_BUSINESS_UNIT_CODE_REGION = "warehouse-by-business-unit-code";
+
+  static final String LOCK_FOR_WRITE = "select 1 from pg_advisory_xact_lock(hashtext(?1))";
+
+  // warehouses read per transaction while streaming
+  private static final int STREAM_CHUNK_SIZE = 500;
+
+  // matches quarkus.hibernate-orm.jdbc.statement-batch-size
+  private static final int WRITE_BATCH_SIZE = 50;
+
+  // reads are projected straight into the domain model, so no managed DbWarehouse is created,
+  // snapshotted or dirty-checked for them
+  private static final String SELECT_WAREHOUSE =
+      "select new "
+          + Warehouse.class.getName()
+          + "(w.id, w.businessUnitCode, w.location, w.capacity, w.stock, w.createdAt, w.archivedAt,"
+          + " w.version)"
+          + " from DbWarehouse w ";
+
+  @Inject WarehouseLookupCache lookupCache;
+
+  @Inject CollectionVersions collectionVersions;
+
   @Override
+  @Transactional
   public void create(Warehouse warehouse) {
     LOGGER.infof("Creating warehouse unit in database: %s", warehouse.businessUnitCode);
     warehouse.createdAt = LocalDateTime.now();
-    persist(toDb(warehouse));
+    DbWarehouse db = toDb(warehouse);
+    persist(db);
+    // the id comes from the sequence at persist time, so the caller needs no read-back
+    warehouse.id = db.id;
+    warehouse.version = db.version;
+    lookupCache.invalidate(List.of(warehouse));
+    collectionVersions.changed(CollectionVersions.WAREHOUSES);
+  }
+
+  @Override
+  @Transactional
+  public void createAll(List<Warehouse> warehouses) {
+    LOGGER.infof("Creating %d warehouse units in database", warehouses.size());
+    LocalDateTime now = LocalDateTime.now();
+    List<DbWarehouse> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+    for (Warehouse warehouse : warehouses) {
+      warehouse.createdAt = now;
+      DbWarehouse db = toDb(warehouse);
+      persist(db);
+      warehouse.id = db.id;
+      warehouse.version = db.version;
+      batch.add(db);
+      if (batch.size() == WRITE_BATCH_SIZE) {
+        flushAndDetach(batch);
+      }
+    }
+    flushAndDetach(batch);
+    lookupCache.invalidate(warehouses);
+    collectionVersions.changed(CollectionVersions.WAREHOUSES);
+  }
+
+  // sends the pending inserts as one JDBC batch and keeps the persistence context small; only the
+  // batch's own entities are detached, not the ones the caller holds
+  private void flushAndDetach(List<DbWarehouse> batch) {
+    flush();
+    batch.forEach(getEntityManager()::detach);
+    batch.clear();
   }
 
+  /**
+   * Writes the warehouse over the stored one. When the warehouse carries the version it was read at
+   * and the stored one has moved on since, nothing is written and an {@link
+   * OptimisticLockException} is thrown; so is one when a concurrent update commits first.
+   */
   @Override
+  @Transactional
   public void update(Warehouse warehouse) {
     LOGGER.infof("Updating warehouse unit in database: %s", warehouse.businessUnitCode);
     DbWarehouse dbWarehouse = null;
@@ -35,17 +125,31 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
     }
 
     if (dbWarehouse != null) {
+      if (warehouse.version != null && warehouse.version != dbWarehouse.version) {
+        LOGGER.warnf(
+            "Warehouse unit %s changed since version %d", warehouse.businessUnitCode, warehouse.version);
+        throw new OptimisticLockException(
+            "Warehouse unit " + warehouse.businessUnitCode + " was modified concurrently");
+      }
       dbWarehouse.location = warehouse.location;
       dbWarehouse.capacity = warehouse.capacity;
       dbWarehouse.stock = warehouse.stock;
       dbWarehouse.archivedAt = warehouse.archivedAt;
       persist(dbWarehouse);
+      // the version check runs here rather than at commit, where it would not be an
+      // OptimisticLockException any more
+      flush();
+      warehouse.id = dbWarehouse.id;
+      warehouse.version = dbWarehouse.version;
+      lookupCache.invalidate(List.of(warehouse));
+      collectionVersions.changed(CollectionVersions.WAREHOUSES);
     } else {
       LOGGER.warnf("Warehouse unit not found for update: %s", warehouse.businessUnitCode);
     }
   }
 
   @Override
+  @Transactional
   public void remove(Warehouse warehouse) {
     LOGGER.infof("Removing (archiving) warehouse unit from database: %s", warehouse.businessUnitCode);
     warehouse.archivedAt = LocalDateTime.now();
@@ -53,31 +157,203 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
   }
 
   @Override
+  @Transactional(Transactional.TxType.SUPPORTS)
   public Warehouse findByInternalId(Long id) {
     LOGGER.debugf("Finding warehouse by ID: %d", id);
-    DbWarehouse dbWarehouse = findById(id);
-    return dbWarehouse != null ? fromDb(dbWarehouse) : null;
+    return selectWarehouses("where w.id = :id")
+        .setParameter("id", id)
+        .getResultStream()
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * {@link #findByInternalId}, served from {@link WarehouseLookupCache} outside of transactions. For
+   * plain reads only: a cached warehouse may be a moment behind a write made elsewhere.
+   */
+  @Transactional(Transactional.TxType.SUPPORTS)
+  public Warehouse findCachedByInternalId(Long id) {
+    return lookupCache.findByInternalId(id, () -> findByInternalId(id));
   }
 
   @Override
+  @Transactional(Transactional.TxType.SUPPORTS)
   public Warehouse findByBusinessUnitCode(String buCode) {
     LOGGER.debugf("Finding warehouse by business unit code: %s", buCode);
-    return find("businessUnitCode = ?1 and archivedAt is null", buCode).firstResultOptional().map(this::fromDb).orElse(null);
+    return selectByBusinessUnitCode(buCode).getResultStream().findFirst().orElse(null);
+  }
+
+  /**
+   * {@link #findByBusinessUnitCode}, served from {@link WarehouseLookupCache} outside of
+   * transactions and otherwise from the query cache, both of which every warehouse write
+   * invalidates. For plain reads only: the caches are local to this node, so they may be a moment
+   * behind a write made on another one.
+   */
+  @Transactional(Transactional.TxType.SUPPORTS)
+  public Warehouse findCachedByBusinessUnitCode(String buCode) {
+    return lookupCache.findByBusinessUnitCode(
+        buCode,
+        () ->
+            // a stream would bypass the query cache
+            selectByBusinessUnitCode(buCode)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, BY_BUSINESS_UNIT_CODE_REGION)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .orElse(null));
   }
 
   @Override
+  @Transactional(Transactional.TxType.SUPPORTS)
   public List<Warehouse> findByLocation(String locationIdentifier) {
     LOGGER.debugf("Finding warehouses by location: %s", locationIdentifier);
-    return find("location = ?1 and archivedAt is null", locationIdentifier).stream().map(this::fromDb).collect(Collectors.toList());
+    return selectWarehouses("where w.location = :location and w.archivedAt is null")
+        .setParameter("location", locationIdentifier)
+        .getResultList();
+  }
+
+  @Override
+  @Transactional(Transactional.TxType.SUPPORTS)
+  public LocationOccupancy getLocationOccupancy(
+      String locationIdentifier, String excludedBusinessUnitCode) {
+    LOGGER.debugf(
+        "Getting occupancy of location: %s excluding: %s", locationIdentifier, excludedBusinessUnitCode);
+    String jpql =
+        "select count(w), coalesce(sum(w.capacity), 0) from DbWarehouse w"
+            + " where w.location = :location and w.archivedAt is null";
+    if (excludedBusinessUnitCode != null) {
+      jpql += " and w.businessUnitCode <> :excluded";
+    }
+    var query =
+        getEntityManager()
+            .createQuery(jpql, Object[].class)
+            .setParameter("location", locationIdentifier);
+    if (excludedBusinessUnitCode != null) {
+      query.setParameter("excluded", excludedBusinessUnitCode);
+    }
+    Object[] row = query.getSingleResult();
+    return new LocationOccupancy(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+  }
+
+  @Override
+  @Transactional(Transactional.TxType.SUPPORTS)
+  public Map<String, LocationOccupancy> getLocationOccupancies(Collection<String> locationIdentifiers) {
+    LOGGER.debugf("Getting occupancy of %d locations", locationIdentifiers.size());
+    Map<String, LocationOccupancy> occupancies = new HashMap<>();
+    if (locationIdentifiers.isEmpty()) {
+      return occupancies;
+    }
+    getEntityManager()
+        .createQuery(
+            "select w.location, count(w), coalesce(sum(w.capacity), 0) from DbWarehouse w"
+                + " where w.location in :locations and w.archivedAt is null group by w.location",
+            Object[].class)
+        .setParameter("locations", locationIdentifiers)
+        .getResultStream()
+        .forEach(
+            row ->
+                occupancies.put(
+                    (String) row[0],
+                    new LocationOccupancy(((Number) row[1]).longValue(), ((Number) row[2]).longValue())));
+    return occupancies;
   }
 
   @Override
+  @Transactional(Transactional.TxType.SUPPORTS)
+  public Set<String> findActiveBusinessUnitCodes(Collection<String> buCodes) {
+    LOGGER.debugf("Finding which of %d business unit codes are in use", buCodes.size());
+    if (buCodes.isEmpty()) {
+      return new HashSet<>();
+    }
+    return new HashSet<>(
+        getEntityManager()
+            .createQuery(
+                "select w.businessUnitCode from DbWarehouse w"
+                    + " where w.businessUnitCode in :buCodes and w.archivedAt is null",
+                String.class)
+            .setParameter("buCodes", buCodes)
+            .getResultList());
+  }
+
+  /**
+   * Takes a PostgreSQL advisory lock per location and per business unit code, released when the
+   * transaction ends. Unlike row locks they also cover warehouses that do not exist yet. The locks
+   * are taken in the order of their keys, so two writers locking overlapping sets cannot deadlock.
+   */
+  @Override
+  @Transactional(Transactional.TxType.MANDATORY)
+  public void lockForWrite(Collection<String> locationIdentifiers, Collection<String> buCodes) {
+    Set<String> keys = lockKeys(locationIdentifiers, buCodes);
+    LOGGER.debugf("Locking warehouse writes: %s", keys);
+    for (String key : keys) {
+      getEntityManager().createNativeQuery(LOCK_FOR_WRITE).setParameter(1, key).getSingleResult();
+    }
+  }
+
+  // the advisory lock keys, in the order they are taken; shared with ReactiveWarehouseRepository
+  static Set<String> lockKeys(Collection<String> locationIdentifiers, Collection<String> buCodes) {
+    Set<String> keys = new TreeSet<>();
+    locationIdentifiers.stream().filter(Objects::nonNull).forEach(l -> keys.add("location:" + l));
+    buCodes.stream().filter(Objects::nonNull).forEach(c -> keys.add("business-unit:" + c));
+    return keys;
+  }
+
+  @Override
+  @Transactional(Transactional.TxType.SUPPORTS)
   public List<Warehouse> getAll() {
     LOGGER.debug("Getting all warehouses from database");
-    return list("archivedAt is null").stream().map(this::fromDb).collect(Collectors.toList());
+    return selectWarehouses("where w.archivedAt is null").getResultList();
+  }
+
+  @Override
+  @Transactional(Transactional.TxType.SUPPORTS)
+  public List<Warehouse> findPage(Long afterId, int limit) {
+    LOGGER.debugf("Getting page of %d warehouses after ID: %d", limit, afterId);
+    return selectActiveAfter(afterId).setMaxResults(limit).getResultList();
   }
 
-  private DbWarehouse toDb(Warehouse warehouse) {
+  /**
+   * Reads the warehouses in keyset chunks, each in a short transaction of its own that ends before
+   * the chunk is handed to the consumer. A slow consumer therefore holds neither a transaction nor
+   * a connection, and never runs into the transaction timeout.
+   */
+  @Override
+  public void streamAll(Long afterId, Consumer<Warehouse> consumer) {
+    LOGGER.debugf("Streaming warehouses after ID: %d", afterId);
+    Long lastId = afterId;
+    List<Warehouse> chunk;
+    do {
+      Long after = lastId;
+      chunk =
+          QuarkusTransaction.requiringNew()
+              .call(() -> selectActiveAfter(after).setMaxResults(STREAM_CHUNK_SIZE).getResultList());
+      chunk.forEach(consumer);
+      if (!chunk.isEmpty()) {
+        lastId = chunk.get(chunk.size() - 1).id;
+      }
+    } while (chunk.size() == STREAM_CHUNK_SIZE);
+  }
+
+  private TypedQuery<Warehouse> selectWarehouses(String where) {
+    return getEntityManager().createQuery(SELECT_WAREHOUSE + where, Warehouse.class);
+  }
+
+  private TypedQuery<Warehouse> selectByBusinessUnitCode(String buCode) {
+    return selectWarehouses("where w.businessUnitCode = :buCode and w.archivedAt is null")
+        .setParameter("buCode", buCode)
+        .setMaxResults(1);
+  }
+
+  private TypedQuery<Warehouse> selectActiveAfter(Long afterId) {
+    if (afterId == null) {
+      return selectWarehouses("where w.archivedAt is null order by w.id");
+    }
+    return selectWarehouses("where w.archivedAt is null and w.id > :afterId order by w.id")
+        .setParameter("afterId", afterId);
+  }
+
+  DbWarehouse toDb(Warehouse warehouse) {
     DbWarehouse db = new DbWarehouse();
     db.id = warehouse.id;
     db.businessUnitCode = warehouse.businessUnitCode;
@@ -88,16 +364,4 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
     db.archivedAt = warehouse.archivedAt;
     return db;
   }
-
-  private Warehouse fromDb(DbWarehouse db) {
-    Warehouse warehouse = new Warehouse();
-    warehouse.id = db.id;
-    warehouse.businessUnitCode = db.businessUnitCode;
-    warehouse.location = db.location;
-    warehouse.capacity = db.capacity;
-    warehouse.stock = db.stock;
-    warehouse.createdAt = db.createdAt;
-    warehouse.archivedAt = db.archivedAt;
-    return warehouse;
-  }
 }
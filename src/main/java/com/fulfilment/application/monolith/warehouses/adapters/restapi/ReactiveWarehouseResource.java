@@ -0,0 +1,224 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.infrastructure.persistence.CollectionVersions;
+import com.fulfilment.application.monolith.infrastructure.rest.CollectionETag;
+import com.fulfilment.application.monolith.infrastructure.rest.EntityTags;
+import com.fulfilment.application.monolith.infrastructure.rest.SmileMessageBodyHandler;
+import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehousesOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveCreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import com.warehouse.api.beans.Warehouse;
+import com.warehouse.api.beans.WarehouseBatchResult;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Link;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@code /warehouse} API of {@link WarehouseResourceImpl}, served from the event loop on top of
+ * {@link ReactiveWarehouseStore}. Active instead of it when the application is built with {@code
+ * warehouse.store.adapter=reactive}.
+ *
+ * <p>The batch endpoint still runs the blocking {@link CreateWarehousesOperation} on a worker
+ * thread: it is a single bulk transaction, which gains nothing from the event loop.
+ */
+@Path("/warehouse")
+@IfBuildProperty(name = "warehouse.store.adapter", stringValue = "reactive")
+public class ReactiveWarehouseResource {
+
+  private static final Logger LOGGER = Logger.getLogger(ReactiveWarehouseResource.class);
+
+  private final ReactiveWarehouseStore warehouseStore;
+  private final ReactiveCreateWarehouseOperation createWarehouseOperation;
+  private final ReactiveArchiveWarehouseOperation archiveWarehouseOperation;
+  private final ReactiveReplaceWarehouseOperation replaceWarehouseOperation;
+  private final CreateWarehousesOperation createWarehousesOperation;
+
+  public ReactiveWarehouseResource(
+      ReactiveWarehouseStore warehouseStore,
+      ReactiveCreateWarehouseOperation createWarehouseOperation,
+      ReactiveArchiveWarehouseOperation archiveWarehouseOperation,
+      ReactiveReplaceWarehouseOperation replaceWarehouseOperation,
+      CreateWarehousesOperation createWarehousesOperation) {
+    this.warehouseStore = warehouseStore;
+    this.createWarehouseOperation = createWarehouseOperation;
+    this.archiveWarehouseOperation = archiveWarehouseOperation;
+    this.replaceWarehouseOperation = replaceWarehouseOperation;
+    this.createWarehousesOperation = createWarehousesOperation;
+  }
+
+  @GET
+  @Produces({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE})
+  @CollectionETag(CollectionVersions.WAREHOUSES)
+  public Uni<Response> listAllWarehousesUnits(
+      @QueryParam("limit") Integer limit, @QueryParam("after") Long after, @Context UriInfo uriInfo) {
+    int pageSize = limit != null ? limit : WarehouseResourceImpl.DEFAULT_PAGE_SIZE;
+    if (pageSize < 1 || pageSize > WarehouseResourceImpl.MAX_PAGE_SIZE) {
+      LOGGER.warnf("Invalid page size requested: %d", limit);
+      throw new WebApplicationException(
+          "limit must be between 1 and " + WarehouseResourceImpl.MAX_PAGE_SIZE, 400);
+    }
+    return warehouseStore
+        .findPage(after, pageSize)
+        .map(
+            page -> {
+              Response.ResponseBuilder response =
+                  Response.ok(page.stream().map(WarehouseMapper::toResponse).toList());
+              Link next = WarehouseResourceImpl.nextPage(uriInfo, page, pageSize);
+              if (next != null) {
+                response.links(next);
+              }
+              return response.build();
+            });
+  }
+
+  @GET
+  @Path("/stream")
+  @Produces("application/x-ndjson")
+  @RestStreamElementType(MediaType.APPLICATION_JSON)
+  @CollectionETag(CollectionVersions.WAREHOUSES)
+  public Multi<Warehouse> streamAllWarehouseUnits(@QueryParam("after") Long after) {
+    LOGGER.infof("Streaming warehouse units after ID: %d", after);
+    // pages are read one after the other as the client consumes them
+    AtomicReference<Long> lastId = new AtomicReference<>(after);
+    return Multi.createBy()
+        .repeating()
+        .uni(() -> warehouseStore.findPage(lastId.get(), WarehouseResourceImpl.DEFAULT_PAGE_SIZE))
+        .whilst(page -> page.size() == WarehouseResourceImpl.DEFAULT_PAGE_SIZE)
+        .invoke(page -> lastId.set(page.isEmpty() ? lastId.get() : page.get(page.size() - 1).id))
+        .onItem()
+        .<com.fulfilment.application.monolith.warehouses.domain.models.Warehouse>disjoint()
+        .map(WarehouseMapper::toResponse);
+  }
+
+  @POST
+  @Produces(MediaType.APPLICATION_JSON)
+  @Consumes(MediaType.APPLICATION_JSON)
+  public Uni<Warehouse> createANewWarehouseUnit(@NotNull Warehouse data) {
+    LOGGER.infof("Creating a new warehouse unit: %s", data.getBusinessUnitCode());
+    var warehouse = WarehouseMapper.toDomain(data, data.getBusinessUnitCode());
+    return createWarehouseOperation.create(warehouse).map(WarehouseMapper::toResponse);
+  }
+
+  @POST
+  @Path("/batch")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Blocking
+  public WarehouseBatchResult createWarehouseUnitsInBatch(@NotNull List<Warehouse> data) {
+    LOGGER.infof("Creating a batch of %d warehouse units", data.size());
+    if (data.isEmpty() || data.size() > WarehouseResourceImpl.MAX_BATCH_SIZE) {
+      throw new WebApplicationException(
+          "batch must contain between 1 and " + WarehouseResourceImpl.MAX_BATCH_SIZE + " warehouse units", 400);
+    }
+    List<com.fulfilment.application.monolith.warehouses.domain.models.Warehouse> warehouses =
+        new ArrayList<>(data.size());
+    for (Warehouse item : data) {
+      warehouses.add(WarehouseMapper.toDomain(item, item != null ? item.getBusinessUnitCode() : null));
+    }
+    return WarehouseMapper.toBatchResult(createWarehousesOperation.createAll(warehouses));
+  }
+
+  @GET
+  @Path("/{id}")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Uni<Response> getAWarehouseUnitByID(@PathParam("id") String id, @Context Request request) {
+    LOGGER.infof("Getting warehouse unit by ID: %s", id);
+    return warehouseStore
+        .findByInternalId(Long.parseLong(id))
+        .map(
+            warehouse -> {
+              if (warehouse == null) {
+                LOGGER.warnf("Warehouse unit not found: %s", id);
+                throw new WebApplicationException("Warehouse unit not found", 404);
+              }
+              return EntityTags.conditionalGet(
+                  request, WarehouseMapper.toResponse(warehouse), warehouse.version);
+            });
+  }
+
+  @GET
+  @Path("/business-units/{businessUnitCode}")
+  @Produces(MediaType.APPLICATION_JSON)
+  public Uni<Response> getTheActiveWarehouseUnitByBusinessUnitCode(
+      @PathParam("businessUnitCode") String businessUnitCode, @Context Request request) {
+    LOGGER.infof("Getting warehouse unit by business unit code: %s", businessUnitCode);
+    return warehouseStore
+        .findByBusinessUnitCode(businessUnitCode)
+        .map(
+            warehouse -> {
+              if (warehouse == null) {
+                LOGGER.warnf("Warehouse unit not found: %s", businessUnitCode);
+                throw new WebApplicationException("Warehouse unit not found", 404);
+              }
+              return EntityTags.conditionalGet(
+                  request, WarehouseMapper.toResponse(warehouse), warehouse.version);
+            });
+  }
+
+  @DELETE
+  @Path("/{id}")
+  public Uni<Void> archiveAWarehouseUnitByID(@PathParam("id") String id, @Context Request request) {
+    LOGGER.infof("Archiving warehouse unit by ID: %s", id);
+    return warehouseStore
+        .findByInternalId(Long.parseLong(id))
+        .chain(
+            warehouse -> {
+              if (warehouse == null) {
+                LOGGER.warnf("Warehouse unit not found for archiving: %s", id);
+                throw new WebApplicationException("Warehouse unit not found", 404);
+              }
+              EntityTags.checkPreconditions(request, warehouse.version);
+              return archiveWarehouseOperation.archive(warehouse);
+            });
+  }
+
+  @POST
+  @Path("/{businessUnitCode}/replacement")
+  @Produces(MediaType.APPLICATION_JSON)
+  @Consumes(MediaType.APPLICATION_JSON)
+  public Uni<Warehouse> replaceTheCurrentActiveWarehouse(
+      @PathParam("businessUnitCode") String businessUnitCode,
+      @NotNull Warehouse data,
+      @Context HttpHeaders headers) {
+    LOGGER.infof("Replacing warehouse unit: %s", businessUnitCode);
+    var warehouse = WarehouseMapper.toDomain(data, businessUnitCode);
+    Long expectedVersion = EntityTags.ifMatchVersion(headers);
+    return replaceWarehouseOperation
+        .replace(warehouse, expectedVersion)
+        .map(WarehouseMapper::toResponse)
+        .onFailure(e -> expectedVersion != null && e instanceof OptimisticLockException)
+        .transform(e -> EntityTags.preconditionFailed(e.getMessage()))
+        .onFailure(IllegalArgumentException.class)
+        .transform(
+            e ->
+                new WebApplicationException(
+                    e.getMessage(), e.getMessage().contains("not found") ? 404 : 400));
+  }
+}
@@ -0,0 +1,64 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import com.warehouse.api.beans.Warehouse;
+import com.warehouse.api.beans.WarehouseBatchItem;
+import com.warehouse.api.beans.WarehouseBatchResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Maps between the API beans and the domain model, for both warehouse resources. */
+final class WarehouseMapper {
+
+  private WarehouseMapper() {}
+
+  static Warehouse toResponse(
+      com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
+    var response = new Warehouse();
+    response.setId(warehouse.id != null ? warehouse.id.toString() : null);
+    response.setBusinessUnitCode(warehouse.businessUnitCode);
+    response.setLocation(warehouse.location);
+    response.setCapacity(warehouse.capacity);
+    response.setStock(warehouse.stock);
+
+    return response;
+  }
+
+  // a null item (e.g. a JSON null in a batch) becomes an empty warehouse, rejected by validation
+  static com.fulfilment.application.monolith.warehouses.domain.models.Warehouse toDomain(
+      Warehouse data, String businessUnitCode) {
+    var warehouse = new com.fulfilment.application.monolith.warehouses.domain.models.Warehouse();
+    if (data != null) {
+      warehouse.businessUnitCode = businessUnitCode;
+      warehouse.location = data.getLocation();
+      warehouse.capacity = data.getCapacity();
+      warehouse.stock = data.getStock();
+    }
+    return warehouse;
+  }
+
+  static WarehouseBatchResult toBatchResult(List<WarehouseCreationResult> results) {
+    var response = new WarehouseBatchResult();
+    List<WarehouseBatchItem> items = new ArrayList<>(results.size());
+    int created = 0;
+    for (WarehouseCreationResult result : results) {
+      var item = new WarehouseBatchItem();
+      item.setIndex(result.index);
+      item.setBusinessUnitCode(result.warehouse.businessUnitCode);
+      if (result.isCreated()) {
+        created++;
+        item.setStatus("CREATED");
+        item.setWarehouse(toResponse(result.warehouse));
+      } else {
+        item.setStatus("REJECTED");
+        item.setError(result.error);
+      }
+      items.add(item);
+    }
+    response.setCreated(created);
+    response.setRejected(results.size() - created);
+    response.setItems(items);
+    return response;
+  }
+}
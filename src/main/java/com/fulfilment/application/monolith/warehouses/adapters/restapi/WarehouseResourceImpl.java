@@ -1,64 +1,185 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.infrastructure.persistence.CollectionVersions;
+import com.fulfilment.application.monolith.infrastructure.rest.CollectionETag;
+import com.fulfilment.application.monolith.infrastructure.rest.EntityTags;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehousesOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
 import com.warehouse.api.WarehouseResource;
 import com.warehouse.api.beans.Warehouse;
+import com.warehouse.api.beans.WarehouseBatchResult;
+import io.quarkus.arc.properties.UnlessBuildProperty;
+import io.vertx.core.http.HttpServerResponse;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Link;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
 import org.jboss.logging.Logger;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 
 @RequestScoped
+@UnlessBuildProperty(name = "warehouse.store.adapter", stringValue = "reactive", enableIfMissing = true)
 public class WarehouseResourceImpl implements WarehouseResource {
 
   private static final Logger LOGGER = Logger.getLogger(WarehouseResourceImpl.class);
 
+  static final int DEFAULT_PAGE_SIZE = 500;
+  static final int MAX_PAGE_SIZE = 1000;
+  static final int MAX_BATCH_SIZE = 1000;
+
+  private static final String NDJSON = "application/x-ndjson";
+
   @Inject private WarehouseRepository warehouseRepository;
 
   @Inject private CreateWarehouseOperation createWarehouseOperation;
 
+  @Inject private CreateWarehousesOperation createWarehousesOperation;
+
   @Inject private ArchiveWarehouseOperation archiveWarehouseOperation;
 
   @Inject private ReplaceWarehouseOperation replaceWarehouseOperation;
 
+  @Inject private ObjectMapper objectMapper;
+
+  @Inject private HttpHeaders headers;
+
+  @Inject private UriInfo uriInfo;
+
+  @Inject private Request request;
+
+  @Inject private ContainerRequestContext requestContext;
+
+  // the generated interface returns the page itself, so its Link header is set on the response
+  @Inject private HttpServerResponse response;
+
   @Override
-  public List<Warehouse> listAllWarehousesUnits() {
-    return warehouseRepository.getAll().stream().map(this::toWarehouseResponse).toList();
+  @CollectionETag(CollectionVersions.WAREHOUSES)
+  public List<Warehouse> listAllWarehousesUnits(Integer limit, Long after) {
+    int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+    if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+      LOGGER.warnf("Invalid page size requested: %d", limit);
+      throw new jakarta.ws.rs.WebApplicationException(
+          "limit must be between 1 and " + MAX_PAGE_SIZE, 400);
+    }
+    List<com.fulfilment.application.monolith.warehouses.domain.models.Warehouse> page =
+        warehouseRepository.findPage(after, pageSize);
+    Link next = nextPage(uriInfo, page, pageSize);
+    if (next != null) {
+      response.putHeader(HttpHeaders.LINK, next.toString());
+    }
+    return page.stream().map(WarehouseMapper::toResponse).toList();
+  }
+
+  /**
+   * The {@code rel="next"} link to the page after a full one: the same request, from the cursor
+   * after its last warehouse. Null when the page is not full, as it is the last one.
+   */
+  static Link nextPage(
+      UriInfo uriInfo,
+      List<com.fulfilment.application.monolith.warehouses.domain.models.Warehouse> page,
+      int pageSize) {
+    if (page.size() < pageSize) {
+      return null;
+    }
+    Long last = page.get(page.size() - 1).id;
+    return Link.fromUriBuilder(uriInfo.getRequestUriBuilder().replaceQueryParam("after", last))
+        .rel("next")
+        .build();
+  }
+
+  @Override
+  @CollectionETag(CollectionVersions.WAREHOUSES)
+  public Response streamAllWarehouseUnits(Long after) {
+    LOGGER.infof("Streaming warehouse units after ID: %d", after);
+    StreamingOutput body =
+        output -> {
+          try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // one document per line: newlines are written explicitly instead of the default space
+            generator.setRootValueSeparator(null);
+            warehouseRepository.streamAll(
+                after,
+                warehouse -> {
+                  try {
+                    generator.writeObject(WarehouseMapper.toResponse(warehouse));
+                    generator.writeRaw('\n');
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+          } catch (UncheckedIOException e) {
+            throw e.getCause();
+          }
+        };
+    return Response.ok(body, NDJSON).build();
   }
 
   @Override
   public Warehouse createANewWarehouseUnit(@NotNull Warehouse data) {
     LOGGER.infof("Creating a new warehouse unit: %s", data.getBusinessUnitCode());
-    com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse =
-        new com.fulfilment.application.monolith.warehouses.domain.models.Warehouse();
-    warehouse.businessUnitCode = data.getBusinessUnitCode();
-    warehouse.location = data.getLocation();
-    warehouse.capacity = data.getCapacity();
-    warehouse.stock = data.getStock();
+    var warehouse = WarehouseMapper.toDomain(data, data.getBusinessUnitCode());
 
-    createWarehouseOperation.create(warehouse);
+    return WarehouseMapper.toResponse(createWarehouseOperation.create(warehouse));
+  }
 
-    var response = this.warehouseRepository.findByBusinessUnitCode(warehouse.businessUnitCode);
+  @Override
+  public WarehouseBatchResult createWarehouseUnitsInBatch(@NotNull List<Warehouse> data) {
+    LOGGER.infof("Creating a batch of %d warehouse units", data.size());
+    if (data.isEmpty() || data.size() > MAX_BATCH_SIZE) {
+      throw new jakarta.ws.rs.WebApplicationException(
+          "batch must contain between 1 and " + MAX_BATCH_SIZE + " warehouse units", 400);
+    }
+    List<com.fulfilment.application.monolith.warehouses.domain.models.Warehouse> warehouses =
+        new ArrayList<>(data.size());
+    for (Warehouse item : data) {
+      warehouses.add(WarehouseMapper.toDomain(item, item != null ? item.getBusinessUnitCode() : null));
+    }
 
-    return response != null ? this.toWarehouseResponse(response) : null;
+    return WarehouseMapper.toBatchResult(createWarehousesOperation.createAll(warehouses));
   }
 
   @Override
   public Warehouse getAWarehouseUnitByID(String id) {
     LOGGER.infof("Getting warehouse unit by ID: %s", id);
     com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse =
-            warehouseRepository.findByInternalId(Long.parseLong(id));
+            warehouseRepository.findCachedByInternalId(Long.parseLong(id));
     if (warehouse == null) {
       LOGGER.warnf("Warehouse unit not found: %s", id);
       throw new jakarta.ws.rs.WebApplicationException("Warehouse unit not found", 404);
     }
 
-    return this.toWarehouseResponse(warehouse);
+    EntityTags.tagResponse(requestContext, warehouse.version);
+    return WarehouseMapper.toResponse(warehouse);
+  }
+
+  @Override
+  public Warehouse getTheActiveWarehouseUnitByBusinessUnitCode(String businessUnitCode) {
+    LOGGER.infof("Getting warehouse unit by business unit code: %s", businessUnitCode);
+    com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse =
+            warehouseRepository.findCachedByBusinessUnitCode(businessUnitCode);
+    if (warehouse == null) {
+      LOGGER.warnf("Warehouse unit not found: %s", businessUnitCode);
+      throw new jakarta.ws.rs.WebApplicationException("Warehouse unit not found", 404);
+    }
+
+    EntityTags.tagResponse(requestContext, warehouse.version);
+    return WarehouseMapper.toResponse(warehouse);
   }
 
   @Override
@@ -67,6 +188,7 @@ public class WarehouseResourceImpl implements WarehouseResource {
     com.fulfilment.application.monolith.warehouses.domain.models.Warehouse domainWarehouse =
             warehouseRepository.findByInternalId(Long.parseLong(id));
     if (domainWarehouse != null) {
+      EntityTags.checkPreconditions(request, domainWarehouse.version);
       archiveWarehouseOperation.archive(domainWarehouse);
     } else {
       LOGGER.warnf("Warehouse unit not found for archiving: %s", id);
@@ -78,36 +200,21 @@ public class WarehouseResourceImpl implements WarehouseResource {
   public Warehouse replaceTheCurrentActiveWarehouse(
           String businessUnitCode, @NotNull Warehouse data) {
     LOGGER.infof("Replacing warehouse unit: %s", businessUnitCode);
-    com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse =
-            new com.fulfilment.application.monolith.warehouses.domain.models.Warehouse();
-    warehouse.businessUnitCode = businessUnitCode;
-    warehouse.location = data.getLocation();
-    warehouse.capacity = data.getCapacity();
-    warehouse.stock = data.getStock();
+    var warehouse = WarehouseMapper.toDomain(data, businessUnitCode);
+    Long expectedVersion = EntityTags.ifMatchVersion(headers);
 
     try {
-      replaceWarehouseOperation.replace(warehouse);
+      return WarehouseMapper.toResponse(replaceWarehouseOperation.replace(warehouse, expectedVersion));
+    } catch (OptimisticLockException e) {
+      if (expectedVersion == null) {
+        throw e;
+      }
+      throw EntityTags.preconditionFailed(e.getMessage());
     } catch (IllegalArgumentException e) {
       if (e.getMessage().contains("not found")) {
         throw new jakarta.ws.rs.WebApplicationException(e.getMessage(), 404);
       }
       throw new jakarta.ws.rs.WebApplicationException(e.getMessage(), 400);
     }
-
-    var response = this.warehouseRepository.findByBusinessUnitCode(warehouse.businessUnitCode);
-
-    return response != null ? this.toWarehouseResponse(response) : null;
-  }
-
-  private Warehouse toWarehouseResponse(
-          com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
-    var response = new Warehouse();
-    response.setId(warehouse.id != null ? warehouse.id.toString() : null);
-    response.setBusinessUnitCode(warehouse.businessUnitCode);
-    response.setLocation(warehouse.location);
-    response.setCapacity(warehouse.capacity);
-    response.setStock(warehouse.stock);
-
-    return response;
   }
 }
@@ -18,4 +18,39 @@ public class Warehouse {
   public LocalDateTime createdAt;
 
   public LocalDateTime archivedAt;
+
+  // version of the stored warehouse it was read at; null for one that is not stored yet
+  public Long version;
+
+  public Warehouse() {}
+
+  public Warehouse(
+      Long id,
+      String businessUnitCode,
+      String location,
+      Integer capacity,
+      Integer stock,
+      LocalDateTime createdAt,
+      LocalDateTime archivedAt) {
+    this.id = id;
+    this.businessUnitCode = businessUnitCode;
+    this.location = location;
+    this.capacity = capacity;
+    this.stock = stock;
+    this.createdAt = createdAt;
+    this.archivedAt = archivedAt;
+  }
+
+  public Warehouse(
+      Long id,
+      String businessUnitCode,
+      String location,
+      Integer capacity,
+      Integer stock,
+      LocalDateTime createdAt,
+      LocalDateTime archivedAt,
+      Long version) {
+    this(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt);
+    this.version = version;
+  }
 }
@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class WarehouseCreationResult {
+
+  // position of the warehouse in the submitted batch
+  public int index;
+
+  public Warehouse warehouse;
+
+  // reason the warehouse was rejected, null when it was created
+  public String error;
+
+  public WarehouseCreationResult(int index, Warehouse warehouse, String error) {
+    this.index = index;
+    this.warehouse = warehouse;
+    this.error = error;
+  }
+
+  public boolean isCreated() {
+    return error == null;
+  }
+}
@@ -3,5 +3,6 @@ package com.fulfilment.application.monolith.warehouses.domain.ports;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 
 public interface CreateWarehouseOperation {
-  void create(Warehouse warehouse);
+  // returns the created warehouse, with its id and creation time
+  Warehouse create(Warehouse warehouse);
 }
@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.smallrye.mutiny.Uni;
+
+public interface ReactiveCreateWarehouseOperation {
+  // emits the created warehouse, with its id and creation time
+  Uni<Warehouse> create(Warehouse warehouse);
+}
@@ -0,0 +1,10 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.smallrye.mutiny.Uni;
+
+public interface ReactiveReplaceWarehouseOperation {
+  // emits the replacement warehouse, with its id and creation time; a non-null expectedVersion is
+  // the version the replaced warehouse must still be at when it is archived
+  Uni<Warehouse> replace(Warehouse warehouse, Long expectedVersion);
+}
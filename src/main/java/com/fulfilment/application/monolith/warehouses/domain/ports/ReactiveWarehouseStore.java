@@ -0,0 +1,40 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.smallrye.mutiny.Uni;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+// non-blocking counterpart of WarehouseStore, for the warehouse operations served from event-loop threads
+public interface ReactiveWarehouseStore {
+  // active warehouses with an id greater than afterId (all when null), ordered by id
+  Uni<List<Warehouse>> findPage(Long afterId, int limit);
+
+  // emits null when there is no such warehouse
+  Uni<Warehouse> findByInternalId(Long id);
+
+  // the active warehouse with that code, or null
+  Uni<Warehouse> findByBusinessUnitCode(String buCode);
+
+  // active warehouse count and total capacity of a location, optionally leaving one warehouse out
+  Uni<LocationOccupancy> getLocationOccupancy(String locationIdentifier, String excludedBusinessUnitCode);
+
+  // inserts the warehouse, assigning its id and creation time
+  Uni<Void> create(Warehouse warehouse);
+
+  // archives the warehouse, setting its archive time
+  Uni<Void> remove(Warehouse warehouse);
+
+  // archives the old warehouse and inserts the new one in a single transaction
+  Uni<Void> replace(Warehouse oldWarehouse, Warehouse newWarehouse);
+
+  // runs work in a single transaction that first blocks writers of warehouses in these locations or
+  // with these business unit codes, as WarehouseStore.lockForWrite does, so the checks work makes
+  // through the store it is given stay true until its writes commit; null entries are ignored
+  <T> Uni<T> inWriteTransaction(
+      Collection<String> locationIdentifiers,
+      Collection<String> buCodes,
+      Function<ReactiveWarehouseStore, Uni<T>> work);
+}
@@ -3,5 +3,7 @@ package com.fulfilment.application.monolith.warehouses.domain.ports;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 
 public interface ReplaceWarehouseOperation {
-  void replace(Warehouse warehouse);
+  // returns the replacement warehouse, with its id and creation time; a non-null expectedVersion is
+  // the version the replaced warehouse must still be at when it is archived
+  Warehouse replace(Warehouse warehouse, Long expectedVersion);
 }
@@ -1,13 +1,29 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface WarehouseStore {
   List<Warehouse> getAll();
 
+  // active warehouses with an id greater than afterId (all when null), ordered by id
+  List<Warehouse> findPage(Long afterId, int limit);
+
+  // hands every active warehouse with an id greater than afterId to the consumer, ordered by id,
+  // without holding the whole result in memory
+  void streamAll(Long afterId, Consumer<Warehouse> consumer);
+
+  // inserts the warehouse, assigning its id and creation time
   void create(Warehouse warehouse);
 
+  // inserts all warehouses in one transaction, assigning their id and creation time
+  void createAll(List<Warehouse> warehouses);
+
   void update(Warehouse warehouse);
 
   void remove(Warehouse warehouse);
@@ -17,4 +33,18 @@ public interface WarehouseStore {
   Warehouse findByBusinessUnitCode(String buCode);
 
   List<Warehouse> findByLocation(String locationIdentifier);
+
+  // active warehouse count and total capacity of a location, optionally leaving one warehouse out
+  LocationOccupancy getLocationOccupancy(String locationIdentifier, String excludedBusinessUnitCode);
+
+  // occupancy of each of the given locations; locations without active warehouses are absent
+  Map<String, LocationOccupancy> getLocationOccupancies(Collection<String> locationIdentifiers);
+
+  // the subset of the given business unit codes held by an active warehouse
+  Set<String> findActiveBusinessUnitCodes(Collection<String> buCodes);
+
+  // blocks writers of warehouses in these locations or with these business unit codes until the
+  // running transaction ends, so its checks of occupancy and code uniqueness stay true until commit;
+  // null entries are ignored
+  void lockForWrite(Collection<String> locationIdentifiers, Collection<String> buCodes);
 }
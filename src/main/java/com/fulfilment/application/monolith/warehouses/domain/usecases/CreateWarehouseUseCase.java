@@ -4,8 +4,11 @@ import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
 
+import java.util.Collections;
+
 @ApplicationScoped
 public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
@@ -20,8 +23,12 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
   }
 
   @Override
-  public void create(Warehouse warehouse) {
+  @Transactional
+  public Warehouse create(Warehouse warehouse) {
     LOGGER.infof("Creating warehouse: %s at location: %s", warehouse.businessUnitCode, warehouse.location);
+    // the checks below hold until the warehouse is inserted, as no concurrent write can get in between
+    warehouseStore.lockForWrite(
+        Collections.singleton(warehouse.location), Collections.singleton(warehouse.businessUnitCode));
     // Business Unit Code Verification
     if (warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode) != null) {
       LOGGER.warnf("Warehouse with business unit code already exists: %s", warehouse.businessUnitCode);
@@ -33,5 +40,6 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
     // if all went well, create the warehouse
     warehouseStore.create(warehouse);
     LOGGER.infof("Warehouse created successfully: %s", warehouse.businessUnitCode);
+    return warehouse;
   }
 }
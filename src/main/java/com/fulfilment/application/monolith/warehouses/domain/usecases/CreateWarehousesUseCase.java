@@ -0,0 +1,116 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehousesOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates a batch of warehouses with set-based validation: business unit codes, locations and
+ * location occupancies are each loaded once for the whole batch, and the location limits are then
+ * checked in memory, counting the warehouses accepted earlier in the same batch.
+ *
+ * <p>The checks and the inserts run in one transaction that first locks the locations and codes of
+ * the batch, so no concurrent create or replacement can take what the checks found available.
+ */
+@ApplicationScoped
+public class CreateWarehousesUseCase implements CreateWarehousesOperation {
+
+  private static final Logger LOGGER = Logger.getLogger(CreateWarehousesUseCase.class);
+
+  private final WarehouseStore warehouseStore;
+  private final LocationResolver locationResolver;
+  private final WarehouseValidator warehouseValidator;
+
+  public CreateWarehousesUseCase(
+      WarehouseStore warehouseStore,
+      LocationResolver locationResolver,
+      WarehouseValidator warehouseValidator) {
+    this.warehouseStore = warehouseStore;
+    this.locationResolver = locationResolver;
+    this.warehouseValidator = warehouseValidator;
+  }
+
+  @Override
+  @Transactional
+  public List<WarehouseCreationResult> createAll(List<Warehouse> warehouses) {
+    LOGGER.infof("Creating batch of %d warehouses", warehouses.size());
+    Set<String> buCodes = new HashSet<>();
+    Set<String> locationIdentifiers = new HashSet<>();
+    for (Warehouse warehouse : warehouses) {
+      if (warehouse.businessUnitCode != null) {
+        buCodes.add(warehouse.businessUnitCode);
+      }
+      if (warehouse.location != null) {
+        locationIdentifiers.add(warehouse.location);
+      }
+    }
+
+    warehouseStore.lockForWrite(locationIdentifiers, buCodes);
+    Set<String> existingBuCodes = warehouseStore.findActiveBusinessUnitCodes(buCodes);
+    Map<String, Location> locations = locationResolver.resolveAll(locationIdentifiers);
+    Map<String, LocationOccupancy> occupancies =
+        warehouseStore.getLocationOccupancies(locations.keySet());
+
+    List<WarehouseCreationResult> results = new ArrayList<>(warehouses.size());
+    List<Warehouse> accepted = new ArrayList<>();
+    Set<String> batchBuCodes = new HashSet<>();
+    // what the warehouses accepted so far add to each location, on top of the stored occupancy
+    Map<String, LocationOccupancy> batchOccupancies = new HashMap<>();
+    for (int i = 0; i < warehouses.size(); i++) {
+      Warehouse warehouse = warehouses.get(i);
+      try {
+        if (warehouse.businessUnitCode == null) {
+          throw new IllegalArgumentException("Warehouse business unit code is required");
+        }
+        // Business Unit Code Verification, against the database and the batch itself
+        if (existingBuCodes.contains(warehouse.businessUnitCode)
+            || batchBuCodes.contains(warehouse.businessUnitCode)) {
+          throw new IllegalArgumentException("Warehouse with business unit code already exists");
+        }
+
+        Location location = locations.get(warehouse.location);
+        warehouseValidator.validateLocation(warehouse, location);
+        LocationOccupancy stored = occupancies.get(warehouse.location);
+        LocationOccupancy added =
+            batchOccupancies.computeIfAbsent(warehouse.location, l -> new LocationOccupancy(0, 0));
+        LocationOccupancy occupancy =
+            stored == null
+                ? new LocationOccupancy(added.activeWarehouses, added.totalCapacity)
+                : new LocationOccupancy(
+                    stored.activeWarehouses + added.activeWarehouses,
+                    stored.totalCapacity + added.totalCapacity);
+        warehouseValidator.validateAgainst(warehouse, null, location, occupancy);
+
+        batchBuCodes.add(warehouse.businessUnitCode);
+        added.activeWarehouses++;
+        added.totalCapacity += warehouse.capacity;
+        accepted.add(warehouse);
+        results.add(new WarehouseCreationResult(i, warehouse, null));
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        results.add(new WarehouseCreationResult(i, warehouse, e.getMessage()));
+      }
+    }
+
+    if (!accepted.isEmpty()) {
+      warehouseStore.createAll(accepted);
+    }
+    LOGGER.infof(
+        "Warehouse batch done: %d created, %d rejected",
+        accepted.size(), warehouses.size() - accepted.size());
+    return results;
+  }
+}
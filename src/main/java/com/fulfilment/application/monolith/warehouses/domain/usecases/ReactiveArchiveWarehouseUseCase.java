@@ -0,0 +1,35 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+
+/** Non-blocking {@link ArchiveWarehouseUseCase}. */
+@ApplicationScoped
+@IfBuildProperty(name = "warehouse.store.adapter", stringValue = "reactive")
+public class ReactiveArchiveWarehouseUseCase implements ReactiveArchiveWarehouseOperation {
+
+  private static final Logger LOGGER = Logger.getLogger(ReactiveArchiveWarehouseUseCase.class);
+
+  private final ReactiveWarehouseStore warehouseStore;
+  private final WarehouseValidator warehouseValidator;
+
+  public ReactiveArchiveWarehouseUseCase(
+      ReactiveWarehouseStore warehouseStore, WarehouseValidator warehouseValidator) {
+    this.warehouseStore = warehouseStore;
+    this.warehouseValidator = warehouseValidator;
+  }
+
+  @Override
+  public Uni<Void> archive(Warehouse warehouse) {
+    LOGGER.infof("Archiving warehouse: %s", warehouse.businessUnitCode);
+    return Uni.createFrom()
+        .item(warehouse)
+        .invoke(warehouseValidator::validateNotArchived)
+        .chain(warehouseStore::remove);
+  }
+}
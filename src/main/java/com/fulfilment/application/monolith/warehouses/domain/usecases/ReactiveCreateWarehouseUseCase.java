@@ -0,0 +1,65 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveCreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+
+import java.util.Collections;
+
+/**
+ * Non-blocking {@link CreateWarehouseUseCase}, with the same checks, locks and error messages. The
+ * checks and the insert run in a single transaction.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "warehouse.store.adapter", stringValue = "reactive")
+public class ReactiveCreateWarehouseUseCase implements ReactiveCreateWarehouseOperation {
+
+  private static final Logger LOGGER = Logger.getLogger(ReactiveCreateWarehouseUseCase.class);
+
+  private final ReactiveWarehouseStore warehouseStore;
+  private final WarehouseValidator warehouseValidator;
+  private final LocationResolver locationResolver;
+
+  public ReactiveCreateWarehouseUseCase(
+      ReactiveWarehouseStore warehouseStore,
+      WarehouseValidator warehouseValidator,
+      LocationResolver locationResolver) {
+    this.warehouseStore = warehouseStore;
+    this.warehouseValidator = warehouseValidator;
+    this.locationResolver = locationResolver;
+  }
+
+  @Override
+  public Uni<Warehouse> create(Warehouse warehouse) {
+    LOGGER.infof("Creating warehouse: %s at location: %s", warehouse.businessUnitCode, warehouse.location);
+    // the checks below hold until the warehouse is inserted, as no concurrent write can get in between
+    return warehouseStore
+        .inWriteTransaction(
+            Collections.singleton(warehouse.location),
+            Collections.singleton(warehouse.businessUnitCode),
+            store -> store
+                .findByBusinessUnitCode(warehouse.businessUnitCode)
+                .chain(
+                    existing -> {
+                      // Business Unit Code Verification
+                      if (existing != null) {
+                        LOGGER.warnf("Warehouse with business unit code already exists: %s", warehouse.businessUnitCode);
+                        throw new IllegalArgumentException("Warehouse with business unit code already exists");
+                      }
+                      Location location = locationResolver.resolveByIdentifier(warehouse.location);
+                      warehouseValidator.validateLocation(warehouse, location);
+                      return store
+                          .getLocationOccupancy(warehouse.location, null)
+                          .invoke(occupancy -> warehouseValidator.validateAgainst(warehouse, null, location, occupancy));
+                    })
+                .chain(() -> store.create(warehouse)))
+        .invoke(() -> LOGGER.infof("Warehouse created successfully: %s", warehouse.businessUnitCode))
+        .replaceWith(warehouse);
+  }
+}
@@ -0,0 +1,75 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+
+import java.util.Collections;
+
+/**
+ * Non-blocking {@link ReplaceWarehouseUseCase}, with the same checks, locks and error messages.
+ * The checks, the archive of the old warehouse and the creation of the new one run in a single
+ * transaction.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "warehouse.store.adapter", stringValue = "reactive")
+public class ReactiveReplaceWarehouseUseCase implements ReactiveReplaceWarehouseOperation {
+
+  private static final Logger LOGGER = Logger.getLogger(ReactiveReplaceWarehouseUseCase.class);
+
+  private final ReactiveWarehouseStore warehouseStore;
+  private final WarehouseValidator warehouseValidator;
+  private final LocationResolver locationResolver;
+
+  public ReactiveReplaceWarehouseUseCase(
+      ReactiveWarehouseStore warehouseStore,
+      WarehouseValidator warehouseValidator,
+      LocationResolver locationResolver) {
+    this.warehouseStore = warehouseStore;
+    this.warehouseValidator = warehouseValidator;
+    this.locationResolver = locationResolver;
+  }
+
+  @Override
+  public Uni<Warehouse> replace(Warehouse newWarehouse, Long expectedVersion) {
+    LOGGER.infof("Replacing warehouse: %s", newWarehouse.businessUnitCode);
+    // the checks below hold until the replacement is stored, as no concurrent write can get in between
+    return warehouseStore
+        .inWriteTransaction(
+            Collections.singleton(newWarehouse.location),
+            Collections.singleton(newWarehouse.businessUnitCode),
+            store -> store
+                .findByBusinessUnitCode(newWarehouse.businessUnitCode)
+                .chain(oldWarehouse -> replace(store, oldWarehouse, newWarehouse, expectedVersion)))
+        .invoke(() -> LOGGER.infof("Warehouse replaced successfully: %s", newWarehouse.businessUnitCode))
+        .replaceWith(newWarehouse);
+  }
+
+  private Uni<Void> replace(
+      ReactiveWarehouseStore store, Warehouse oldWarehouse, Warehouse newWarehouse, Long expectedVersion) {
+    if (oldWarehouse == null) {
+      LOGGER.warnf("Warehouse to replace not found: %s", newWarehouse.businessUnitCode);
+      throw new IllegalArgumentException("Warehouse to replace not found");
+    }
+    if (expectedVersion != null) {
+      // archived at the version the client read, or not at all: the store throws when it moved on
+      oldWarehouse.version = expectedVersion;
+    }
+    warehouseValidator.validateNotArchived(oldWarehouse);
+    Location location = locationResolver.resolveByIdentifier(newWarehouse.location);
+    warehouseValidator.validateLocation(newWarehouse, location);
+    // the warehouse being replaced is left out so its capacity is given back
+    return store
+        .getLocationOccupancy(newWarehouse.location, oldWarehouse.businessUnitCode)
+        .invoke(
+            occupancy ->
+                warehouseValidator.validateAgainst(newWarehouse, oldWarehouse, location, occupancy))
+        .chain(() -> store.replace(oldWarehouse, newWarehouse));
+  }
+}
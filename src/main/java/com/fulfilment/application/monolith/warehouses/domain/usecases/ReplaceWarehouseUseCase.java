@@ -4,8 +4,11 @@ import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
 import org.jboss.logging.Logger;
 
+import java.util.Collections;
+
 @ApplicationScoped
 public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
 
@@ -20,18 +23,28 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
   }
 
   @Override
-  public void replace(Warehouse newWarehouse) {
+  @Transactional
+  public Warehouse replace(Warehouse newWarehouse, Long expectedVersion) {
     LOGGER.infof("Replacing warehouse: %s", newWarehouse.businessUnitCode);
+    // the checks below hold until the replacement is stored, as no concurrent write can get in between
+    warehouseStore.lockForWrite(
+        Collections.singleton(newWarehouse.location), Collections.singleton(newWarehouse.businessUnitCode));
     Warehouse oldWarehouse = warehouseStore.findByBusinessUnitCode(newWarehouse.businessUnitCode);
     if (oldWarehouse == null) {
       LOGGER.warnf("Warehouse to replace not found: %s", newWarehouse.businessUnitCode);
       throw new IllegalArgumentException("Warehouse to replace not found");
     }
 
+    if (expectedVersion != null) {
+      // archived at the version the client read, or not at all: the store throws when it moved on
+      oldWarehouse.version = expectedVersion;
+    }
+
     warehouseValidator.validate(newWarehouse, oldWarehouse);
 
     warehouseStore.remove(oldWarehouse);
     warehouseStore.create(newWarehouse);
     LOGGER.infof("Warehouse replaced successfully: %s", newWarehouse.businessUnitCode);
+    return newWarehouse;
   }
 }
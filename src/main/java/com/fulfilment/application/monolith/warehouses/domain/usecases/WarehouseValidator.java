@@ -1,14 +1,13 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.jboss.logging.Logger;
 
-import java.util.List;
-
 @ApplicationScoped
 public class WarehouseValidator {
 
@@ -29,33 +28,50 @@ public class WarehouseValidator {
 
     // Location Validation
     Location location = locationResolver.resolveByIdentifier(warehouse.location);
+    validateLocation(warehouse, location);
+
+    // the warehouse being replaced is left out so its capacity is given back
+    LocationOccupancy occupancy =
+        warehouseStore.getLocationOccupancy(
+            warehouse.location,
+            existingWarehouseBeingReplaced != null ? existingWarehouseBeingReplaced.businessUnitCode : null);
+
+    validateAgainst(warehouse, existingWarehouseBeingReplaced, location, occupancy);
+  }
+
+  public void validateLocation(Warehouse warehouse, Location location) {
     if (location == null) {
       LOGGER.warnf("Invalid location: %s", warehouse.location);
       throw new IllegalArgumentException("Invalid location");
     }
+  }
 
-    List<Warehouse> existingWarehouses = warehouseStore.findByLocation(warehouse.location);
+  /**
+   * Checks the warehouse against an already resolved location and its current occupancy, so callers
+   * validating many warehouses can load both once and reuse them.
+   */
+  public void validateAgainst(
+      Warehouse warehouse,
+      Warehouse existingWarehouseBeingReplaced,
+      Location location,
+      LocationOccupancy occupancy) {
+    if (warehouse.capacity == null || warehouse.stock == null) {
+      LOGGER.warnf("Capacity or stock missing for warehouse: %s", warehouse.businessUnitCode);
+      throw new IllegalArgumentException("Warehouse capacity and stock are required");
+    }
 
     // Warehouse Creation Feasibility
     // If it's a new warehouse OR the location is changing during replacement
     if (existingWarehouseBeingReplaced == null || !warehouse.location.equals(existingWarehouseBeingReplaced.location)) {
-      long activeWarehousesCount =
-          existingWarehouses.stream().filter(w -> w.archivedAt == null).count();
-
-      if (activeWarehousesCount >= location.maxNumberOfWarehouses) {
+      if (occupancy.activeWarehouses >= location.maxNumberOfWarehouses) {
         LOGGER.warnf("Maximum number of warehouses reached for location: %s", warehouse.location);
         throw new IllegalStateException("Maximum number of warehouses reached for this location");
       }
     }
 
     // Capacity and Stock Validation
-    int currentTotalCapacity =
-        existingWarehouses.stream()
-            .filter(w -> w.archivedAt == null)
-            .filter(w -> existingWarehouseBeingReplaced == null || !w.businessUnitCode.equals(existingWarehouseBeingReplaced.businessUnitCode))
-            .mapToInt(w -> w.capacity)
-            .sum();
-    
+    long currentTotalCapacity = occupancy.totalCapacity;
+
     if (currentTotalCapacity + warehouse.capacity > location.maxCapacity) {
       LOGGER.warnf("Maximum capacity reached for location: %s", warehouse.location);
       throw new IllegalStateException("Maximum capacity reached for this location");
@@ -0,0 +1,18 @@
+-- Location catalogue (location.catalogue.source=table), seeded with the built-in LocationGateway
+-- entries so that enabling the catalogue starts from the same locations.
+create table location (
+    identification varchar(255) not null,
+    maxNumberOfWarehouses integer not null,
+    maxCapacity integer not null,
+    primary key (identification)
+);
+
+insert into location(identification, maxNumberOfWarehouses, maxCapacity) values
+    ('ZWOLLE-001', 1, 40),
+    ('ZWOLLE-002', 2, 50),
+    ('AMSTERDAM-001', 5, 100),
+    ('AMSTERDAM-002', 3, 75),
+    ('TILBURG-001', 1, 40),
+    ('HELMOND-001', 1, 45),
+    ('EINDHOVEN-001', 2, 70),
+    ('VETSBY-001', 1, 90);
@@ -0,0 +1,2 @@
+-- Location occupancy aggregates the active warehouses of a location off this index.
+create index warehouse_location_idx on warehouse (location, archivedAt);
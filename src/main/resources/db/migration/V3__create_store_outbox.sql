@@ -0,0 +1,15 @@
+-- Outbox of store changes waiting to be relayed to the legacy system (LegacyStoreOutboxRelay).
+create sequence store_outbox_seq start with 1 increment by 50;
+
+create table store_outbox (
+    id bigint not null,
+    storeId bigint,
+    type varchar(255) check (type in ('CREATED','UPDATED')),
+    name varchar(255),
+    quantityProductsInStock integer not null,
+    createdAt timestamp(6),
+    primary key (id)
+);
+
+-- The relay looks up the latest change of each store to debounce it.
+create index store_outbox_store_idx on store_outbox (storeId, createdAt);
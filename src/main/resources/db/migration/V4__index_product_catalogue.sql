@@ -0,0 +1,4 @@
+-- Keyset pagination of the catalogue walks (name, id) in order; the price range filter uses the
+-- price index.
+create index product_name_id_idx on product (name, id);
+create index product_price_idx on product (price);
@@ -0,0 +1,7 @@
+-- Versions of the store, product and warehouse collections, behind the ETags of their listings.
+-- A row is created by the first write to its collection.
+create table collection_version (
+    name varchar(255) not null,
+    version bigint not null,
+    primary key (name)
+);
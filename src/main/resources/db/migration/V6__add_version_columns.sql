@@ -0,0 +1,5 @@
+-- Optimistic locking columns. Existing rows start at version 0, so the columns can be added to
+-- populated tables.
+alter table product add column version bigint not null default 0;
+alter table store add column version bigint not null default 0;
+alter table warehouse add column version bigint not null default 0;
@@ -0,0 +1,7 @@
+-- Location occupancy is read from this index alone: it holds only the active warehouses, with the
+-- columns the query reads, so the archived history of a location is never visited and the
+-- visible rows need no table lookup. The work per validation is bounded by the location's maximum
+-- number of warehouses. Replaces the index of V2, which also held every archived warehouse.
+drop index warehouse_location_idx;
+create index warehouse_location_occupancy_idx on warehouse (location)
+    include (capacity, businessUnitCode) where archivedAt is null;
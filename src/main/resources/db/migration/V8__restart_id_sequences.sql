@@ -0,0 +1,13 @@
+-- Ids are handed out in blocks of 50 with the pooled-lo optimizer: a sequence value v reserves
+-- [v, v + 49]. An instance on the pooled optimizer reads the same value as (v - 49, v], so the two
+-- must never draw from a sequence at the same time. Each sequence restarts past every id and
+-- every block either optimizer may still hold, after all instances have been stopped.
+select setval('product_seq',
+    greatest((select coalesce(max(id), 0) from product), (select last_value from product_seq)) + 50,
+    false);
+select setval('store_seq',
+    greatest((select coalesce(max(id), 0) from store), (select last_value from store_seq)) + 50,
+    false);
+select setval('warehouse_seq',
+    greatest((select coalesce(max(id), 0) from warehouse), (select last_value from warehouse_seq)) + 50,
+    false);
@@ -0,0 +1,3 @@
+-- The catalogue is paged on the unique name alone, which its unique index already orders; the
+-- (name, id) index of V4 only duplicated it.
+drop index product_name_id_idx;
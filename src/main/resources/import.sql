@@ -1,17 +1,29 @@
-INSERT INTO store(id, name, quantityProductsInStock) VALUES (1, 'HAARLEM', 10);
-INSERT INTO store(id, name, quantityProductsInStock) VALUES (2, 'AMSTERDAM', 5);
-INSERT INTO store(id, name, quantityProductsInStock) VALUES (3, 'HENGELO', 3);
+INSERT INTO store(id, name, quantityProductsInStock, version) VALUES (1, 'HAARLEM', 10, 0);
+INSERT INTO store(id, name, quantityProductsInStock, version) VALUES (2, 'AMSTERDAM', 5, 0);
+INSERT INTO store(id, name, quantityProductsInStock, version) VALUES (3, 'HENGELO', 3, 0);
 ALTER SEQUENCE store_seq RESTART WITH 4;
 
-INSERT INTO product(id, name, stock) VALUES (1, 'TONSTAD', 10);
-INSERT INTO product(id, name, stock) VALUES (2, 'KALLAX', 5);
-INSERT INTO product(id, name, stock) VALUES (3, 'BESTÅ', 3);
+INSERT INTO product(id, name, stock, version) VALUES (1, 'TONSTAD', 10, 0);
+INSERT INTO product(id, name, stock, version) VALUES (2, 'KALLAX', 5, 0);
+INSERT INTO product(id, name, stock, version) VALUES (3, 'BESTÅ', 3, 0);
 ALTER SEQUENCE product_seq RESTART WITH 4;
 
-INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt) 
-VALUES (1, 'MWH.001', 'ZWOLLE-001', 100, 10, '2024-07-01', null);
-INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt)
-VALUES (2, 'MWH.012', 'AMSTERDAM-001', 50, 5, '2023-07-01', null);
-INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt)
-VALUES (3, 'MWH.023', 'TILBURG-001', 30, 27, '2021-02-01', null);
+INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version) 
+VALUES (1, 'MWH.001', 'ZWOLLE-001', 100, 10, '2024-07-01', null, 0);
+INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version)
+VALUES (2, 'MWH.012', 'AMSTERDAM-001', 50, 5, '2023-07-01', null, 0);
+INSERT INTO warehouse(id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version)
+VALUES (3, 'MWH.023', 'TILBURG-001', 30, 27, '2021-02-01', null, 0);
 ALTER SEQUENCE warehouse_seq RESTART WITH 4;
+-- as created by V7__cover_location_occupancy.sql
+CREATE INDEX warehouse_location_occupancy_idx ON warehouse (location) INCLUDE (capacity, businessUnitCode) WHERE archivedAt IS NULL;
+
+
+INSERT INTO location(identification, maxNumberOfWarehouses, maxCapacity) VALUES ('ZWOLLE-001', 1, 40);
+INSERT INTO location(identification, maxNumberOfWarehouses, maxCapacity) VALUES ('ZWOLLE-002', 2, 50);
+INSERT INTO location(identification, maxNumberOfWarehouses, maxCapacity) VALUES ('AMSTERDAM-001', 5, 100);
+INSERT INTO location(identification, maxNumberOfWarehouses, maxCapacity) VALUES ('AMSTERDAM-002', 3, 75);
+INSERT INTO location(identification, maxNumberOfWarehouses, maxCapacity) VALUES ('TILBURG-001', 1, 40);
+INSERT INTO location(identification, maxNumberOfWarehouses, maxCapacity) VALUES ('HELMOND-001', 1, 45);
+INSERT INTO location(identification, maxNumberOfWarehouses, maxCapacity) VALUES ('EINDHOVEN-001', 2, 70);
+INSERT INTO location(identification, maxNumberOfWarehouses, maxCapacity) VALUES ('VETSBY-001', 1, 90);
\ No newline at end of file
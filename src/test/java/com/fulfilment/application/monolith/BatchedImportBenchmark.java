@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Candidate of {@link BulkImportBenchmark}: the application configuration, ids from the pooled-lo
+ * optimizer in blocks of 50 and inserts sent in JDBC batches of 50.
+ */
+@QuarkusTest
+@TestProfile(BatchedImportBenchmark.StatisticsProfile.class)
+public class BatchedImportBenchmark extends BulkImportBenchmark {
+
+    public static class StatisticsProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.hibernate-orm.statistics", "true");
+        }
+    }
+
+    public BatchedImportBenchmark() {
+        super("batches of " + BATCH_SIZE, BATCH_SIZE);
+    }
+
+    @Override
+    void assertStatements(String entity, Result result) {
+        // one sequence call and one batch per block, against two statements per row for the baseline
+        assertTrue(result.statements() * 10 < result.rows(),
+                entity + ": expected batching to cut statements by 10x, " + result);
+    }
+}
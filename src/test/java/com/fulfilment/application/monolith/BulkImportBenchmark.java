@@ -0,0 +1,124 @@
+package com.fulfilment.application.monolith;
+
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.IntFunction;
+
+/**
+ * Imports {@code benchmark.rows} (default 100k) rows of each entity and reports throughput and the
+ * number of prepared statements (sequence calls included). {@link RowByRowImportBenchmark} is the
+ * baseline, one sequence call and one INSERT round-trip per row; {@link BatchedImportBenchmark} runs
+ * the application configuration, pooled-lo ids and JDBC batches. The id optimizer is fixed when the
+ * application is built, so each variant runs in its own test profile.
+ *
+ * <p>Excluded from the regular build, run it with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public abstract class BulkImportBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(BulkImportBenchmark.class);
+
+    static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    static final int BATCH_SIZE = 50;
+
+    @Inject
+    EntityManager entityManager;
+
+    private final String variant;
+    private final int jdbcBatchSize;
+
+    BulkImportBenchmark(String variant, int jdbcBatchSize) {
+        this.variant = variant;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    /**
+     * Asserts on the statement count of a run, timings depend on the machine and database, the
+     * number of round-trips does not.
+     */
+    abstract void assertStatements(String entity, Result result);
+
+    @Test
+    public void benchmarkStoreImport() {
+        run("Store", "delete from Store where name like 'BULK-%'", i -> {
+            Store store = new Store("BULK-" + i);
+            store.quantityProductsInStock = i % 100;
+            return store;
+        });
+    }
+
+    @Test
+    public void benchmarkProductImport() {
+        run("Product", "delete from Product where name like 'BULK-%'", i -> {
+            Product product = new Product("BULK-" + i);
+            product.price = BigDecimal.valueOf(i % 1000, 2);
+            product.stock = i % 100;
+            return product;
+        });
+    }
+
+    @Test
+    public void benchmarkWarehouseImport() {
+        LocalDateTime now = LocalDateTime.now();
+        run("Warehouse", "delete from DbWarehouse where businessUnitCode like 'BULK-%'", i -> {
+            DbWarehouse warehouse = new DbWarehouse();
+            warehouse.businessUnitCode = "BULK-" + i;
+            warehouse.location = "VETSBY-001";
+            warehouse.capacity = 10;
+            warehouse.stock = 5;
+            warehouse.createdAt = now;
+            return warehouse;
+        });
+    }
+
+    private void run(String entity, String cleanup, IntFunction<Object> factory) {
+        // warm up before measuring
+        importRows(ROWS / 10, factory, cleanup);
+
+        Result result = importRows(ROWS, factory, cleanup);
+
+        LOGGER.infof("%s import of %d rows, %s: %s", entity, ROWS, variant, result);
+        assertStatements(entity, result);
+    }
+
+    private Result importRows(int rows, IntFunction<Object> factory, String cleanup) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        QuarkusTransaction.requiringNew().run(() -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(jdbcBatchSize);
+            for (int i = 0; i < rows; i++) {
+                session.persist(factory.apply(i));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+        Result result = new Result(rows, System.nanoTime() - start, statistics.getPrepareStatementCount());
+        QuarkusTransaction.requiringNew().run(() -> entityManager.createQuery(cleanup).executeUpdate());
+        return result;
+    }
+
+    record Result(int rows, long nanos, long statements) {
+        @Override
+        public String toString() {
+            return String.format("%d ms, %.0f rows/s, %d statements",
+                    nanos / 1_000_000, rows * 1e9 / nanos, statements);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.fulfilment.application.monolith;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Baseline of {@link BulkImportBenchmark}: no id optimizer, so every row costs a sequence call, and
+ * no JDBC batching, so every row costs an INSERT round-trip.
+ */
+@QuarkusTest
+@TestProfile(RowByRowImportBenchmark.UnpooledProfile.class)
+public class RowByRowImportBenchmark extends BulkImportBenchmark {
+
+    public static class UnpooledProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            // without an optimizer Hibernate honours allocationSize = 1 whatever the mapping says
+            return Map.of("quarkus.hibernate-orm.statistics", "true",
+                    "quarkus.hibernate-orm.mapping.id.optimizer.default", "none");
+        }
+    }
+
+    public RowByRowImportBenchmark() {
+        super("row by row", 1);
+    }
+
+    @Override
+    void assertStatements(String entity, Result result) {
+        assertTrue(result.statements() >= 2L * result.rows(),
+                entity + ": expected a sequence call and an INSERT per row, " + result);
+    }
+}
@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.infrastructure.persistence;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+
+@QuarkusTest
+public class SecondLevelCacheMetricsTest {
+
+    @Test
+    public void testCacheRegionsArePublished() {
+        given().when().get("/product/1").then().statusCode(200);
+        given().when().get("/product/1").then().statusCode(200);
+
+        given()
+                .when().get("/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("hibernate_second_level_cache_requests_total"),
+                        containsString("hibernate_second_level_cache_size{region=\"com.fulfilment.application.monolith.products.Product\"}"),
+                        containsString("hibernate_second_level_cache_removals_total{region=\"warehouse-by-business-unit-code\"}"),
+                        containsString("hibernate_cache_query_requests_total"));
+    }
+}
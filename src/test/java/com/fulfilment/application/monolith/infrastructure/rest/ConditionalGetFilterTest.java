@@ -0,0 +1,166 @@
+package com.fulfilment.application.monolith.infrastructure.rest;
+
+import com.fulfilment.application.monolith.infrastructure.persistence.CollectionVersions;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.narayana.jta.QuarkusTransactionException;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@QuarkusTest
+public class ConditionalGetFilterTest {
+
+    @Inject
+    WarehouseRepository warehouseRepository;
+
+    @Inject
+    CollectionVersions collectionVersions;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    public void testUnchangedStoresAreNotModified() {
+        String etag = etagOf("/stores");
+
+        given().header("If-None-Match", etag)
+                .when().get("/stores")
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag));
+    }
+
+    @Test
+    public void testStoreWriteChangesETag() {
+        String etag = etagOf("/stores");
+
+        Number id = given().contentType("application/json").body("{\"name\": \"ETAG-STORE\", \"quantityProductsInStock\": 3}")
+                .when().post("/stores")
+                .then().statusCode(201)
+                .extract().path("id");
+        given().when().delete("/stores/" + id).then().statusCode(204);
+
+        given().header("If-None-Match", etag)
+                .when().get("/stores")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)));
+    }
+
+    @Test
+    public void testProductWriteChangesETagOfPagesButNotOfOtherProducts() {
+        String pageEtag = etagOf("/product?limit=2");
+        String singleEtag = etagOf("/product/2");
+
+        given().header("If-None-Match", pageEtag)
+                .when().get("/product?limit=2")
+                .then().statusCode(304);
+
+        Number id = given().contentType("application/json").body("{\"name\": \"ETAG-PRODUCT\", \"stock\": 1}")
+                .when().post("/product")
+                .then().statusCode(201)
+                .extract().path("id");
+        given().when().delete("/product/" + id).then().statusCode(204);
+
+        given().header("If-None-Match", pageEtag)
+                .when().get("/product?limit=2")
+                .then().statusCode(200);
+        given().header("If-None-Match", singleEtag)
+                .when().get("/product/2")
+                .then().statusCode(304);
+    }
+
+    @Test
+    public void testWarehouseWriteChangesETag() {
+        String etag = etagOf("/warehouse");
+
+        given().header("If-None-Match", etag)
+                .when().get("/warehouse")
+                .then().statusCode(304);
+
+        Warehouse warehouse = warehouseRepository.findByBusinessUnitCode("MWH.001");
+        warehouseRepository.update(warehouse);
+
+        given().header("If-None-Match", etag)
+                .when().get("/warehouse")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)));
+    }
+
+    @Test
+    public void testWriteThroughAnotherInstanceChangesETag() {
+        String etag = etagOf("/stores");
+
+        // another instance shares the database, not this instance's memory
+        QuarkusTransaction.requiringNew().run(() -> entityManager.createNativeQuery(CollectionVersions.BUMP)
+                .setParameter(1, CollectionVersions.STORES)
+                .executeUpdate());
+
+        given().header("If-None-Match", etag)
+                .when().get("/stores")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)));
+    }
+
+    @Test
+    public void testRolledBackWriteKeepsETag() {
+        String etag = etagOf("/stores");
+
+        assertThrows(QuarkusTransactionException.class, () -> QuarkusTransaction.requiringNew().run(() -> {
+            collectionVersions.changed(CollectionVersions.STORES);
+            QuarkusTransaction.setRollbackOnly();
+        }));
+
+        given().header("If-None-Match", etag)
+                .when().get("/stores")
+                .then().statusCode(304);
+    }
+
+    @Test
+    public void testWriteBumpsVersionOnceAfterCommit() {
+        long before = Long.parseLong(collectionVersions.version(CollectionVersions.STORES));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            collectionVersions.changed(CollectionVersions.STORES);
+            collectionVersions.changed(CollectionVersions.STORES);
+            // writers do not hold the collection's row until they commit
+            assertEquals(before, Long.parseLong(collectionVersions.version(CollectionVersions.STORES)));
+        });
+
+        assertEquals(before + 1, Long.parseLong(collectionVersions.version(CollectionVersions.STORES)));
+    }
+
+    @Test
+    public void testOtherETagGetsFullResponse() {
+        given().header("If-None-Match", "\"stores-0.0\"")
+                .when().get("/stores")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue());
+    }
+
+    @Test
+    public void testErrorResponsesAreNotTagged() {
+        given().when().get("/product/999999")
+                .then()
+                .statusCode(404)
+                .header("ETag", nullValue());
+    }
+
+    private static String etagOf(String path) {
+        return given().when().get(path).then().statusCode(200).extract().header("ETag");
+    }
+}
@@ -0,0 +1,112 @@
+package com.fulfilment.application.monolith.infrastructure.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+public class ContentNegotiationTest {
+
+    private static final SmileMapper SMILE = new SmileMapper();
+
+    @Test
+    public void testListsAreServedAsSmileWhenAccepted() throws IOException {
+        JsonNode warehouses = smile("/warehouse");
+        assertTrue(warehouses.isArray());
+        assertTrue(warehouses.size() >= 3);
+        assertTrue(warehouses.get(0).hasNonNull("businessUnitCode"));
+
+        JsonNode stores = smile("/stores");
+        assertTrue(stores.isArray());
+        assertTrue(stores.get(0).hasNonNull("name"));
+
+        JsonNode products = smile("/product?limit=2");
+        assertEquals(2, products.size());
+        assertTrue(products.get(0).hasNonNull("name"));
+    }
+
+    @Test
+    public void testListsAreServedAsJsonByDefault() {
+        given().when().get("/warehouse")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("application/json"));
+    }
+
+    @Test
+    public void testSmileAndJsonHaveDifferentETags() {
+        String json = given().accept("application/json")
+                .when().get("/stores")
+                .then().statusCode(200)
+                .extract().header("ETag");
+
+        given().accept(SmileMessageBodyHandler.APPLICATION_SMILE)
+                .when().get("/stores")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(json)))
+                .header("Vary", equalTo("Accept, Accept-Encoding"));
+    }
+
+    @Test
+    public void testSmallResponsesAreNotCompressed() {
+        given().header("Accept-Encoding", "gzip")
+                .when().get("/stores/1")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue());
+    }
+
+    @Test
+    public void testLargeResponsesAreCompressed() {
+        List<Number> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(given().contentType("application/json")
+                    .body("{\"name\": \"COMPRESSED-" + i + "\", \"description\": \"" + "x".repeat(100) + "\", \"stock\": 1}")
+                    .when().post("/product")
+                    .then().statusCode(201)
+                    .extract().path("id"));
+        }
+        try {
+            given().header("Accept-Encoding", "gzip")
+                    .when().get("/product")
+                    .then()
+                    .statusCode(200)
+                    .header("Content-Encoding", equalTo("gzip"));
+        } finally {
+            ids.forEach(id -> given().when().delete("/product/" + id).then().statusCode(204));
+        }
+    }
+
+    @Test
+    public void testStreamedResponsesAreCompressed() {
+        given().header("Accept-Encoding", "br")
+                .when().get("/warehouse/stream")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", equalTo("br"));
+    }
+
+    private static JsonNode smile(String path) throws IOException {
+        byte[] body = given().accept(SmileMessageBodyHandler.APPLICATION_SMILE)
+                .when().get(path)
+                .then()
+                .statusCode(200)
+                .contentType(startsWith(SmileMessageBodyHandler.APPLICATION_SMILE))
+                .extract().asByteArray();
+        return SMILE.readTree(body);
+    }
+}
@@ -1,10 +1,14 @@
 package com.fulfilment.application.monolith.infrastructure.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.quarkus.test.junit.QuarkusTest;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.Test;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @QuarkusTest
 public class GlobalExceptionMapperTest {
@@ -59,4 +63,15 @@ public class GlobalExceptionMapperTest {
           .body("exceptionType", is("java.lang.IllegalArgumentException"))
           .body("error", is("Warehouse with business unit code already exists"));
     }
+
+    @Test
+    public void testOptimisticLockException() {
+        // thrown when a concurrent update of the same entity version commits first
+        GlobalExceptionMapper mapper = new GlobalExceptionMapper();
+        mapper.objectMapper = new ObjectMapper();
+
+        Response response = mapper.toResponse(new OptimisticLockException("Row was updated by another transaction"));
+
+        assertEquals(409, response.getStatus());
+    }
 }
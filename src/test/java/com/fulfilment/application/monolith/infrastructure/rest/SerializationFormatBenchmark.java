@@ -0,0 +1,95 @@
+package com.fulfilment.application.monolith.infrastructure.rest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.warehouse.api.beans.Warehouse;
+import org.jboss.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializing and deserializing a page of {@code pageSize} warehouses as JSON and as Smile, with
+ * the mappers configured as {@link SmileMessageBodyHandler} does. The payload size of each format,
+ * raw and gzipped, is logged once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationFormatBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(SerializationFormatBenchmark.class);
+
+    private static final TypeReference<List<Warehouse>> PAGE = new TypeReference<>() {};
+
+    @Param({"json", "smile"})
+    public String format;
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private List<Warehouse> warehouses;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        // like the mapper Quarkus produces: a plain ObjectMapper with the modules found and ISO dates
+        ObjectMapper json = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper = "smile".equals(format) ? json.copyWith(new SmileFactory()) : json;
+
+        warehouses = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Warehouse warehouse = new Warehouse();
+            warehouse.setId(Integer.toString(i + 1));
+            warehouse.setBusinessUnitCode("MWH." + (i + 1));
+            warehouse.setLocation("AMSTERDAM-00" + (i % 3 + 1));
+            warehouse.setCapacity(100 + i % 50);
+            warehouse.setStock(i % 100);
+            warehouses.add(warehouse);
+        }
+        payload = mapper.writeValueAsBytes(warehouses);
+        LOGGER.infof("%s, %d warehouses: %d bytes, %d bytes gzipped",
+                format, pageSize, payload.length, gzip(payload).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writerFor(PAGE).writeValueAsBytes(warehouses);
+    }
+
+    @Benchmark
+    public List<Warehouse> deserialize() throws IOException {
+        return mapper.readValue(payload, PAGE);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
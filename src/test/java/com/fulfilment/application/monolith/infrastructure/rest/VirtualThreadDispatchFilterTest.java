@@ -0,0 +1,80 @@
+package com.fulfilment.application.monolith.infrastructure.rest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.common.annotation.NonBlocking;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.startsWith;
+
+@QuarkusTest
+@TestProfile(VirtualThreadDispatchFilterTest.VirtualThreadsProfile.class)
+public class VirtualThreadDispatchFilterTest {
+
+    private static final String EVENT_LOOP = "vert.x-eventloop-thread-";
+    // Quarkus falls back to the worker pool when the JDK has no virtual threads
+    private static final String DISPATCHED = Runtime.version().feature() >= 21
+            ? "quarkus-virtual-thread-"
+            : "executor-thread-";
+
+    public static class VirtualThreadsProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.virtual-threads.enabled", "true");
+        }
+    }
+
+    @Path("/virtual-thread-dispatch")
+    public static class ThreadNameResource {
+
+        @GET
+        @Path("blocking")
+        public String blocking() {
+            return Thread.currentThread().getName();
+        }
+
+        @GET
+        @Path("uni")
+        public Uni<String> uni() {
+            return Uni.createFrom().item(() -> Thread.currentThread().getName());
+        }
+
+        @GET
+        @Path("non-blocking")
+        @NonBlocking
+        public String nonBlocking() {
+            return Thread.currentThread().getName();
+        }
+    }
+
+    @Test
+    public void testBlockingEndpointIsDispatched() {
+        given().when().get("/virtual-thread-dispatch/blocking")
+                .then()
+                .statusCode(200)
+                .body(startsWith(DISPATCHED));
+    }
+
+    @Test
+    public void testUniEndpointStaysOnEventLoop() {
+        given().when().get("/virtual-thread-dispatch/uni")
+                .then()
+                .statusCode(200)
+                .body(startsWith(EVENT_LOOP));
+    }
+
+    @Test
+    public void testNonBlockingEndpointStaysOnEventLoop() {
+        given().when().get("/virtual-thread-dispatch/non-blocking")
+                .then()
+                .statusCode(200)
+                .body(startsWith(EVENT_LOOP));
+    }
+}
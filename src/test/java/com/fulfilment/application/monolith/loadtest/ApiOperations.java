@@ -0,0 +1,123 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.loadtest.LoadGenerator.Operation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The operations load tests pick from, on {@code /warehouse}, {@code /stores} and {@code /product},
+ * selected and weighted by a mix such as {@code warehouse-list=10,warehouse-write=5}.
+ */
+final class ApiOperations {
+
+    static final String DEFAULT_MIX =
+            "warehouse-list=15,warehouse-get=20,warehouse-write=5,"
+                    + "store-list=10,store-get=15,store-write=5,"
+                    + "product-list=10,product-get=15,product-write=5";
+
+    // locations with room for the warehouses created (and archived again) by the write operation
+    private static final List<String> LOCATIONS =
+            List.of("AMSTERDAM-001", "AMSTERDAM-002", "ZWOLLE-002", "EINDHOVEN-001");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final OpenApiPayloads contract = OpenApiPayloads.fromClasspath("openapi/warehouse-openapi.yaml");
+    private final AtomicLong sequence = new AtomicLong();
+
+    ApiOperations(HttpClient client, URI baseUri) {
+        this.client = client;
+        this.baseUri = baseUri;
+    }
+
+    List<Operation> mix(String mix) {
+        Map<String, Supplier<CompletableFuture<Integer>>> available = new HashMap<>();
+        available.put("warehouse-list", () -> get("warehouse?limit=100"));
+        available.put("warehouse-get", () -> get("warehouse/" + (1 + sequence.incrementAndGet() % 3)));
+        available.put("warehouse-write", this::createAndArchiveWarehouse);
+        available.put("store-list", () -> get("stores"));
+        available.put("store-get", () -> get("stores/" + (1 + sequence.incrementAndGet() % 3)));
+        available.put("store-write", () -> createAndDelete("stores",
+                Map.of("name", "LOAD-" + sequence.incrementAndGet(), "quantityProductsInStock", 5)));
+        available.put("product-list", () -> get("product"));
+        available.put("product-get", () -> get("product/" + (1 + sequence.incrementAndGet() % 3)));
+        available.put("product-write", () -> createAndDelete("product",
+                Map.of("name", "LOAD-" + sequence.incrementAndGet(), "stock", 5)));
+
+        List<Operation> operations = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] nameAndWeight = entry.trim().split("=");
+            Supplier<CompletableFuture<Integer>> call = available.get(nameAndWeight[0]);
+            if (call == null) {
+                throw new IllegalArgumentException(
+                        "Unknown operation " + nameAndWeight[0] + ", expected one of " + available.keySet());
+            }
+            operations.add(new Operation(nameAndWeight[0], Integer.parseInt(nameAndWeight[1]), call));
+        }
+        return operations;
+    }
+
+    private CompletableFuture<Integer> createAndArchiveWarehouse() {
+        long n = sequence.incrementAndGet();
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("id", null);
+        overrides.put("businessUnitCode", "LOAD." + n);
+        overrides.put("location", LOCATIONS.get((int) (n % LOCATIONS.size())));
+        overrides.put("capacity", 10);
+        overrides.put("stock", 5);
+        // a rejection by the location limits is a valid answer under load, only a created unit is archived
+        return send(post("warehouse", contract.example("Warehouse", overrides)))
+                .thenCompose(created -> created.statusCode() >= 300
+                        ? CompletableFuture.completedFuture(created.statusCode())
+                        : send(delete("warehouse/" + id(created))).thenApply(HttpResponse::statusCode));
+    }
+
+    private CompletableFuture<Integer> createAndDelete(String path, Map<String, Object> payload) {
+        return send(post(path, JSON.valueToTree(payload)))
+                .thenCompose(created -> created.statusCode() >= 300
+                        ? CompletableFuture.completedFuture(created.statusCode())
+                        : send(delete(path + "/" + id(created))).thenApply(HttpResponse::statusCode));
+    }
+
+    private CompletableFuture<Integer> get(String path) {
+        return send(HttpRequest.newBuilder(baseUri.resolve(path)).GET().build()).thenApply(HttpResponse::statusCode);
+    }
+
+    private HttpRequest post(String path, JsonNode body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private HttpRequest delete(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).DELETE().build();
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String id(HttpResponse<String> response) {
+        try {
+            return JSON.readTree(response.body()).get("id").asText();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Keeps {@code loadtest.clients} (default 1000) clients busy on {@code /warehouse}, {@code /stores}
+ * and {@code /product}, each sending its next request as soon as the previous one completed, and
+ * reports throughput and latency per operation. The subclasses run it with the blocking endpoints
+ * on the worker pool and on virtual threads, to compare both at the same concurrency. Other
+ * settings: {@code loadtest.warmup} / {@code loadtest.duration} in seconds (default 10 / 30) and
+ * {@code loadtest.mix} (see {@link HttpLoadBenchmark}).
+ *
+ * <p>Virtual threads need Java 21: run with {@code JAVA_HOME=<jdk 21> mvn test -Pbenchmark
+ * -Dexec.skip -Dtest='*ConcurrencyBenchmark'}.
+ */
+abstract class ConcurrentClientsBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(ConcurrentClientsBenchmark.class);
+
+    @TestHTTPResource("/")
+    URL testUrl;
+
+    abstract String mode();
+
+    @Test
+    public void concurrentClients() throws Exception {
+        URI baseUri = URI.create(testUrl.toString().replaceAll("/?$", "/"));
+        int clients = Integer.getInteger("loadtest.clients", 1000);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+
+            LOGGER.infof("%d concurrent clients on %s for %s after %s warm-up", clients, mode(), duration, warmup);
+            LoadGenerator.Report report = LoadGenerator.runClosed(
+                    new ApiOperations(client, baseUri).mix(System.getProperty("loadtest.mix", ApiOperations.DEFAULT_MIX)),
+                    clients, warmup, duration);
+            LOGGER.infof("Results with %d concurrent clients on %s:%n%s", clients, mode(), report);
+
+            assertEquals(0, report.serverErrors(), "requests failed with 5xx or without a response");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import com.fulfilment.application.monolith.loadtest.LoadGenerator.Operation;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives mixed read/write traffic on {@code /warehouse}, {@code /stores} and {@code /product} and
+ * reports throughput and p50/p99/p999 latency per operation.
+ *
+ * <p>By default it targets the application started for the test, on whatever database the test
+ * run is configured with (dev services PostgreSQL, or H2). Set {@code loadtest.target} to the base
+ * URL of an already running instance to load that one instead. Other settings:
+ *
+ * <ul>
+ *   <li>{@code loadtest.rate}: requests started per second (default 200)
+ *   <li>{@code loadtest.warmup} / {@code loadtest.duration}: seconds (default 10 / 30)
+ *   <li>{@code loadtest.mix}: operation weights, e.g. {@code warehouse-list=10,warehouse-write=5}
+ *   <li>{@code loadtest.max-p99-ms}: fail when an operation's p99 latency exceeds it
+ * </ul>
+ *
+ * <p>Run with {@code mvn test -Pbenchmark -Dtest=HttpLoadBenchmark -Dexec.skip -Dloadtest.rate=500}
+ * ({@code -Dexec.skip} leaves out the JMH benchmarks).
+ */
+@QuarkusTest
+@Tag("benchmark")
+public class HttpLoadBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpLoadBenchmark.class);
+
+    @TestHTTPResource("/")
+    URL testUrl;
+
+    @Test
+    public void mixedTraffic() throws Exception {
+        URI baseUri = URI.create(System.getProperty("loadtest.target", testUrl.toString()).replaceAll("/?$", "/"));
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 30));
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+
+            List<Operation> operations =
+                    new ApiOperations(client, baseUri).mix(System.getProperty("loadtest.mix", ApiOperations.DEFAULT_MIX));
+            LOGGER.infof("Load test against %s: %d req/s for %s after %s warm-up", baseUri, rate, duration, warmup);
+            LoadGenerator.Report report = new LoadGenerator(operations, rate, warmup, duration, rate * 10).run();
+            LOGGER.infof("Load test results:%n%s", report);
+
+            assertEquals(0, report.serverErrors(), "requests failed with 5xx or without a response");
+            String maxP99 = System.getProperty("loadtest.max-p99-ms");
+            if (maxP99 != null) {
+                report.stats().forEach((name, stats) -> assertTrue(
+                        stats.percentileMillis(99) <= Double.parseDouble(maxP99),
+                        name + " p99 of " + stats.percentileMillis(99) + " ms exceeds " + maxP99 + " ms"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load generator: operations are started at a fixed rate whatever the response times,
+ * picked at random according to their weights. Latency is measured from the moment a request was
+ * due to be sent, so a slow server cannot hide its queueing delay by slowing the generator down
+ * (coordinated omission).
+ *
+ * <p>{@link #runClosed} instead simulates a fixed number of concurrent clients, each sending its
+ * next request as soon as the previous one completed, to see how the server copes with that many
+ * requests in flight.
+ */
+final class LoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    /** A unit of traffic: completes with the HTTP status of its (last failing) request. */
+    record Operation(String name, int weight, Supplier<CompletableFuture<Integer>> call) {}
+
+    private final List<Operation> operations;
+    private final int ratePerSecond;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int maxInFlight;
+
+    LoadGenerator(List<Operation> operations, int ratePerSecond, Duration warmup, Duration duration, int maxInFlight) {
+        this.operations = List.copyOf(operations);
+        this.ratePerSecond = ratePerSecond;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.maxInFlight = maxInFlight;
+    }
+
+    Report run() throws InterruptedException {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        operations.forEach(operation -> stats.put(operation.name(), new Stats()));
+        int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        Random random = new Random(42);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * intervalNanos;
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Operation operation = pick(operations, random.nextInt(totalWeight));
+            boolean measured = intendedStart >= measureFrom;
+            Stats operationStats = stats.get(operation.name());
+            if (!inFlight.tryAcquire()) {
+                // the server is that far behind: count the request instead of queueing it forever
+                if (measured) {
+                    operationStats.dropped.increment();
+                }
+                continue;
+            }
+            CompletableFuture<Integer> call;
+            try {
+                call = operation.call().get();
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            call.whenComplete((status, failure) -> {
+                inFlight.release();
+                if (measured) {
+                    operationStats.record(System.nanoTime() - intendedStart, failure == null ? status : -1);
+                }
+            });
+        }
+
+        // let the requests still in flight complete before reporting
+        inFlight.tryAcquire(maxInFlight, 1, TimeUnit.MINUTES);
+        return new Report(stats, duration);
+    }
+
+    /** Runs {@code clients} concurrent clients in a loop for the warm-up and then the duration. */
+    static Report runClosed(List<Operation> operations, int clients, Duration warmup, Duration duration)
+            throws InterruptedException {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        operations.forEach(operation -> stats.put(operation.name(), new Stats()));
+        int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            nextRequest(operations, totalWeight, stats, measureFrom, end, done);
+        }
+        done.await();
+        return new Report(stats, duration);
+    }
+
+    private static void nextRequest(List<Operation> operations, int totalWeight, Map<String, Stats> stats,
+                                    long measureFrom, long end, CountDownLatch done) {
+        long start = System.nanoTime();
+        if (start >= end) {
+            done.countDown();
+            return;
+        }
+        Operation operation = pick(operations, ThreadLocalRandom.current().nextInt(totalWeight));
+        CompletableFuture<Integer> call;
+        try {
+            call = operation.call().get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        // async, so that a client whose requests complete at once does not recurse on one stack
+        call.whenCompleteAsync((status, failure) -> {
+            if (start >= measureFrom) {
+                stats.get(operation.name()).record(System.nanoTime() - start, failure == null ? status : -1);
+            }
+            nextRequest(operations, totalWeight, stats, measureFrom, end, done);
+        });
+    }
+
+    private static Operation pick(List<Operation> operations, int ticket) {
+        for (Operation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("weights changed while running");
+    }
+
+    static final class Stats {
+        final Histogram latencyMicros = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        final LongAdder success = new LongAdder();
+        final LongAdder clientErrors = new LongAdder();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+
+        void record(long latencyNanos, int status) {
+            latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+            if (status >= 200 && status < 400) {
+                success.increment();
+            } else if (status >= 400 && status < 500) {
+                clientErrors.increment();
+            } else {
+                // 5xx, or no response at all
+                serverErrors.increment();
+            }
+        }
+
+        long count() {
+            return latencyMicros.getTotalCount();
+        }
+
+        double percentileMillis(double percentile) {
+            return latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+
+    record Report(Map<String, Stats> stats, Duration duration) {
+
+        long serverErrors() {
+            return stats.values().stream().mapToLong(s -> s.serverErrors.sum()).sum();
+        }
+
+        @Override
+        public String toString() {
+            List<String> lines = new ArrayList<>();
+            lines.add(String.format("%-16s %8s %9s %7s %7s %7s %7s %9s %9s %9s %9s",
+                    "operation", "count", "req/s", "2xx/3xx", "4xx", "5xx", "dropped",
+                    "p50 ms", "p99 ms", "p999 ms", "max ms"));
+            Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+            stats.forEach((name, s) -> {
+                total.add(s.latencyMicros);
+                lines.add(String.format("%-16s %8d %9.1f %7d %7d %7d %7d %9.2f %9.2f %9.2f %9.2f",
+                        name, s.count(), s.count() / (double) duration.toSeconds(),
+                        s.success.sum(), s.clientErrors.sum(), s.serverErrors.sum(), s.dropped.sum(),
+                        s.percentileMillis(50), s.percentileMillis(99), s.percentileMillis(99.9),
+                        s.latencyMicros.getMaxValue() / 1000.0));
+            });
+            lines.add(String.format("%-16s %8d %9.1f %39s %9.2f %9.2f %9.2f %9.2f",
+                    "total", total.getTotalCount(), total.getTotalCount() / (double) duration.toSeconds(), "",
+                    total.getValueAtPercentile(50) / 1000.0, total.getValueAtPercentile(99) / 1000.0,
+                    total.getValueAtPercentile(99.9) / 1000.0, total.getMaxValue() / 1000.0));
+            return String.join("\n", lines);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Builds request payloads from the schemas of an OpenAPI contract, so the load test sends what the
+ * contract describes: every property of the schema, filled with its {@code example} value, with
+ * per-request values (unique codes, locations...) laid on top.
+ */
+final class OpenApiPayloads {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final JsonNode schemas;
+
+    private OpenApiPayloads(JsonNode spec) {
+        this.schemas = spec.path("components").path("schemas");
+    }
+
+    static OpenApiPayloads fromClasspath(String resource) {
+        try (InputStream in = OpenApiPayloads.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("OpenAPI contract not found on the classpath: " + resource);
+            }
+            return new OpenApiPayloads(new ObjectMapper(new YAMLFactory()).readTree(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * An example instance of {@code schema} with {@code overrides} applied; a null override removes
+     * the property (e.g. server-assigned ids).
+     */
+    ObjectNode example(String schema, Map<String, Object> overrides) {
+        ObjectNode payload = example(schema);
+        overrides.forEach((name, value) -> {
+            if (!payload.has(name)) {
+                throw new IllegalArgumentException(schema + " has no property " + name);
+            }
+            if (value == null) {
+                payload.remove(name);
+            } else {
+                payload.set(name, JSON.valueToTree(value));
+            }
+        });
+        return payload;
+    }
+
+    private ObjectNode example(String schema) {
+        JsonNode definition = schemas.path(schema);
+        if (definition.isMissingNode()) {
+            throw new IllegalArgumentException("Unknown schema " + schema);
+        }
+        ObjectNode payload = JSON.createObjectNode();
+        definition.path("properties").fields().forEachRemaining(property -> {
+            JsonNode value = property.getValue();
+            if (value.has("$ref")) {
+                String ref = value.get("$ref").asText();
+                payload.set(property.getKey(), example(ref.substring(ref.lastIndexOf('/') + 1)));
+            } else if (value.has("example")) {
+                payload.set(property.getKey(), value.get("example"));
+            }
+        });
+        return payload;
+    }
+}
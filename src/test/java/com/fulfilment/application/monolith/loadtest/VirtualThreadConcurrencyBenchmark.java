@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/** {@link ConcurrentClientsBenchmark} with the endpoints on virtual threads. */
+@QuarkusTest
+@TestProfile(VirtualThreadConcurrencyBenchmark.VirtualThreadsProfile.class)
+@Tag("benchmark")
+public class VirtualThreadConcurrencyBenchmark extends ConcurrentClientsBenchmark {
+
+    public static class VirtualThreadsProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.virtual-threads.enabled", "true");
+        }
+    }
+
+    @BeforeAll
+    public static void requireVirtualThreads() {
+        // on older JDKs the endpoints would silently fall back to the worker pool
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+    }
+
+    @Override
+    String mode() {
+        return "virtual threads";
+    }
+}
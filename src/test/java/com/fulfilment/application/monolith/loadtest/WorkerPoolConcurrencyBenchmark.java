@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.loadtest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Tag;
+
+/** {@link ConcurrentClientsBenchmark} with the endpoints on the worker pool (the default). */
+@QuarkusTest
+@Tag("benchmark")
+public class WorkerPoolConcurrencyBenchmark extends ConcurrentClientsBenchmark {
+
+    @Override
+    String mode() {
+        return "the worker pool";
+    }
+}
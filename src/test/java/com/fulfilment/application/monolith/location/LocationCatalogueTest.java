@@ -0,0 +1,89 @@
+package com.fulfilment.application.monolith.location;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LocationCatalogueTest {
+
+  @TempDir Path tempDir;
+
+  private Path file;
+  private SimpleMeterRegistry meterRegistry;
+  private LocationCatalogue catalogue;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    file = tempDir.resolve("locations.csv");
+    Files.writeString(file, "# identification,maxNumberOfWarehouses,maxCapacity\nZWOLLE-001,1,40\n\nAMSTERDAM-001,5,100\n");
+    meterRegistry = new SimpleMeterRegistry();
+    catalogue = new LocationCatalogue(new FileLocationSource(file), meterRegistry);
+  }
+
+  @Test
+  public void testReloadLoadsEntriesFromFile() {
+    assertTrue(catalogue.reload());
+
+    Location location = catalogue.resolveByIdentifier("AMSTERDAM-001");
+    assertEquals(5, location.maxNumberOfWarehouses);
+    assertEquals(100, location.maxCapacity);
+    assertEquals(1L, catalogue.snapshot().version());
+    assertEquals(2.0, meterRegistry.get("location.catalogue.entries").gauge().value());
+    assertEquals(1L, meterRegistry.get("location.catalogue.reload").timer().count());
+  }
+
+  @Test
+  public void testReloadPublishesNewSnapshot() throws Exception {
+    catalogue.reload();
+    LocationSnapshot first = catalogue.snapshot();
+
+    Files.writeString(file, "ZWOLLE-001,2,80\nTILBURG-001,1,40\n");
+    assertTrue(catalogue.reload());
+
+    assertEquals(2L, catalogue.snapshot().version());
+    assertEquals(80, catalogue.resolveByIdentifier("ZWOLLE-001").maxCapacity);
+    assertNull(catalogue.resolveByIdentifier("AMSTERDAM-001"));
+    // readers holding the previous snapshot keep a consistent view
+    assertEquals(40, first.find("ZWOLLE-001").maxCapacity);
+  }
+
+  @Test
+  public void testFailedReloadKeepsCurrentSnapshot() throws Exception {
+    catalogue.reload();
+    LocationSnapshot current = catalogue.snapshot();
+
+    Files.writeString(file, "ZWOLLE-001,not-a-number,40\n");
+    assertFalse(catalogue.reload());
+
+    assertSame(current, catalogue.snapshot());
+    assertEquals(1.0, meterRegistry.get("location.catalogue.reload.failures").counter().count());
+  }
+
+  @Test
+  public void testDuplicateIdentifiersFailReload() throws Exception {
+    Files.writeString(file, "ZWOLLE-001,1,40\nZWOLLE-001,2,50\n");
+
+    assertFalse(catalogue.reload());
+    assertEquals(0L, catalogue.snapshot().version());
+  }
+
+  @Test
+  public void testResolveAllAndHasLocation() {
+    catalogue.reload();
+
+    assertEquals(1, catalogue.resolveAll(List.of("ZWOLLE-001", "UNKNOWN")).size());
+    assertTrue(catalogue.hasLocation("ZWOLLE-001"));
+    assertFalse(catalogue.hasLocation("UNKNOWN"));
+  }
+}
@@ -0,0 +1,38 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationGatewayBenchmark {
+
+    private final LocationGateway locationGateway = new LocationGateway();
+
+    // not a constant, so the lookup cannot be folded away
+    public String identifier = "EINDHOVEN-001";
+
+    @Benchmark
+    public Location resolveByIdentifier() {
+        return locationGateway.resolveByIdentifier(identifier);
+    }
+
+    @Benchmark
+    public boolean hasLocation() {
+        return locationGateway.hasLocation(identifier);
+    }
+}
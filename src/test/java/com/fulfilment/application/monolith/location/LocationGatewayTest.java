@@ -1,8 +1,15 @@
 package com.fulfilment.application.monolith.location;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 
 public class LocationGatewayTest {
@@ -30,4 +37,51 @@ public class LocationGatewayTest {
     // then
     assertEquals(location, null);
   }
+
+  @Test
+  public void testWhenResolveNullIdentifierShouldReturnNull() {
+    LocationGateway locationGateway = new LocationGateway();
+
+    assertEquals(null, locationGateway.resolveByIdentifier(null));
+  }
+
+  @Test
+  public void testWhenResolveTwiceShouldReturnSameInstance() {
+    LocationGateway locationGateway = new LocationGateway();
+
+    assertSame(
+        locationGateway.resolveByIdentifier("AMSTERDAM-001"),
+        locationGateway.resolveByIdentifier("AMSTERDAM-001"));
+  }
+
+  @Test
+  public void testWhenResolveAllShouldSkipUnknownIdentifiers() {
+    // given
+    LocationGateway locationGateway = new LocationGateway();
+
+    // when
+    Map<String, Location> resolved =
+        locationGateway.resolveAll(Arrays.asList("ZWOLLE-001", "UNKNOWN-001", null, "TILBURG-001"));
+
+    // then
+    assertEquals(2, resolved.size());
+    assertEquals("ZWOLLE-001", resolved.get("ZWOLLE-001").identification);
+    assertEquals("TILBURG-001", resolved.get("TILBURG-001").identification);
+  }
+
+  @Test
+  public void testHasLocation() {
+    LocationGateway locationGateway = new LocationGateway();
+
+    assertTrue(locationGateway.hasLocation("VETSBY-001"));
+    assertFalse(locationGateway.hasLocation("VETSBY-002"));
+    assertFalse(locationGateway.hasLocation(null));
+  }
+
+  @Test
+  public void testIndexRejectsDuplicateIdentifiers() {
+    List<Location> duplicates = List.of(new Location("DUP-001", 1, 10), new Location("DUP-001", 2, 20));
+
+    assertThrows(IllegalStateException.class, () -> LocationSnapshot.index(duplicates));
+  }
 }
@@ -0,0 +1,102 @@
+package com.fulfilment.application.monolith.products;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fills the catalogue with {@code benchmark.products} (default 200k) products and reads a page of
+ * {@code benchmark.page-size} (default 100) at increasing depths, with the keyset cursor used by
+ * {@code GET /product} and, for comparison, with an offset. Reports the median latency of each.
+ *
+ * <p>Excluded from the regular build, run it with {@code mvn test -Pbenchmark -Dtest=ProductCatalogueBenchmark -Dexec.skip}.
+ */
+@QuarkusTest
+@Tag("benchmark")
+public class ProductCatalogueBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(ProductCatalogueBenchmark.class);
+
+    private static final int PRODUCTS = Integer.getInteger("benchmark.products", 200_000);
+    private static final int PAGE_SIZE = Integer.getInteger("benchmark.page-size", 100);
+    private static final int BATCH_SIZE = 50;
+    private static final int RUNS = 21;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    ProductRepository productRepository;
+
+    @AfterEach
+    public void cleanup() {
+        QuarkusTransaction.requiringNew().run(() -> productRepository.delete("name like 'CATALOGUE-%'"));
+    }
+
+    @Test
+    public void benchmarkPageDepth() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Session session = entityManager.unwrap(Session.class);
+            for (int i = 0; i < PRODUCTS; i++) {
+                Product product = new Product(String.format("CATALOGUE-%07d", i));
+                product.price = BigDecimal.valueOf(i % 10_000, 2);
+                product.stock = i % 7;
+                session.persist(product);
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+
+        // warm up both queries before measuring
+        medianMillis(() -> productRepository.findPage(null, null, null, false, PAGE_SIZE));
+        medianMillis(() -> byOffset(0));
+
+        for (double depth : new double[] {0, 0.25, 0.5, 0.75, 0.99}) {
+            int offset = (int) (PRODUCTS * depth);
+            // the cursor of the product just before the page, as the previous page would hand it out
+            ProductCursor cursor = offset == 0 ? null : ProductCursor.after(byOffset(offset - 1).get(0));
+
+            List<Product> keysetPage = productRepository.findPage(cursor, null, null, false, PAGE_SIZE);
+            List<Product> offsetPage = byOffset(offset);
+            assertEquals(offsetPage.stream().map(p -> p.id).toList(), keysetPage.stream().map(p -> p.id).toList());
+
+            double keyset = medianMillis(() -> productRepository.findPage(cursor, null, null, false, PAGE_SIZE));
+            double byOffset = medianMillis(() -> byOffset(offset));
+            LOGGER.infof("Page of %d at depth %d of %d: keyset %.2f ms, offset %.2f ms",
+                    PAGE_SIZE, offset, PRODUCTS, keyset, byOffset);
+        }
+    }
+
+    private List<Product> byOffset(int offset) {
+        return productRepository.find("name is not null", Sort.by("name").and("id"))
+                .range(offset, offset + PAGE_SIZE - 1)
+                .list();
+    }
+
+    private double medianMillis(Supplier<List<Product>> page) {
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            QuarkusTransaction.requiringNew().call(page::get);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[RUNS / 2] / 1e6;
+    }
+}
@@ -1,24 +1,41 @@
 package com.fulfilment.application.monolith.products;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.TestTransaction;
 import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.core.IsNot.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 @TestTransaction
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class ProductEndpointTest {
 
+  @Inject ProductRepository productRepository;
+
   @Test
   @Order(1)
   public void testGetAllProducts() {
@@ -159,4 +176,275 @@ public class ProductEndpointTest {
             .then()
             .statusCode(404);
   }
+
+  @Test
+  @Order(11)
+  public void testListProductsPageByPage() {
+    List<String> all = given().when().get("/product").then().statusCode(200).extract().path("name");
+    assertTrue(all.size() >= 3);
+
+    // walking the catalogue one product at a time gives the same products in the same order
+    List<String> walked = new ArrayList<>();
+    String next = "/product?limit=1";
+    while (next != null) {
+      Response page = given().when().get(next).then().statusCode(200).extract().response();
+      walked.addAll(page.path("name"));
+      String link = page.header("Link");
+      next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+    }
+    assertEquals(all, walked);
+  }
+
+  @Test
+  @Order(12)
+  public void testListProductsWithFilters() {
+    createProduct("FILTER-CHEAP", "5.00", 1);
+    createProduct("FILTER-PRICEY", "500.00", 1);
+    createProduct("FILTER-SOLD-OUT", "5.00", 0);
+
+    given()
+        .when().get("/product?minPrice=1&maxPrice=10")
+        .then()
+        .statusCode(200)
+        .body(containsString("FILTER-CHEAP"), containsString("FILTER-SOLD-OUT"),
+            not(containsString("FILTER-PRICEY")));
+
+    given()
+        .when().get("/product?minPrice=1&maxPrice=10&inStock=true")
+        .then()
+        .statusCode(200)
+        .body(containsString("FILTER-CHEAP"), not(containsString("FILTER-SOLD-OUT")));
+  }
+
+  @Test
+  @Order(13)
+  public void testListProductsInvalidParameters() {
+    given().when().get("/product?limit=0").then().statusCode(400);
+    given().when().get("/product?limit=1001").then().statusCode(400);
+    given().when().get("/product?cursor=not-a-cursor").then().statusCode(400);
+    given().when().get("/product?minPrice=10&maxPrice=1").then().statusCode(400);
+  }
+
+  @Test
+  @Order(14)
+  public void testAdjustStock() {
+    long id = createProductWithStock("STOCK-ADJUSTED", 10);
+    // cached from here on: the adjustments must evict it
+    given().when().get("/product/" + id).then().statusCode(200).body("stock", is(10));
+
+    given().contentType("application/json").body("{\"delta\": -4}")
+        .when().post("/product/" + id + "/stock-adjustments")
+        .then().statusCode(204);
+    given().contentType("application/json").body("{\"delta\": 2}")
+        .when().post("/product/" + id + "/stock-adjustments")
+        .then().statusCode(204);
+    given().when().get("/product/" + id).then().statusCode(200).body("stock", is(8));
+
+    // never below zero
+    given().contentType("application/json").body("{\"delta\": -9}")
+        .when().post("/product/" + id + "/stock-adjustments")
+        .then().statusCode(409);
+    given().contentType("application/json").body("{\"delta\": -8}")
+        .when().post("/product/" + id + "/stock-adjustments")
+        .then().statusCode(204);
+    given().when().get("/product/" + id).then().statusCode(200).body("stock", is(0));
+  }
+
+  @Test
+  @Order(15)
+  public void testAdjustStockInvalidRequests() {
+    long id = createProductWithStock("STOCK-INVALID", 1);
+
+    given().contentType("application/json").body("{\"delta\": -1}")
+        .when().post("/product/999999/stock-adjustments")
+        .then().statusCode(404);
+    given().contentType("application/json").body("{\"delta\": 0}")
+        .when().post("/product/" + id + "/stock-adjustments")
+        .then().statusCode(422);
+    given().contentType("application/json").body("{}")
+        .when().post("/product/" + id + "/stock-adjustments")
+        .then().statusCode(422);
+    given().contentType("application/json").body("{\"productId\": " + (id + 1) + ", \"delta\": 1}")
+        .when().post("/product/" + id + "/stock-adjustments")
+        .then().statusCode(422);
+  }
+
+  @Test
+  @Order(16)
+  public void testAdjustStockConcurrentlyLosesNoUpdate() throws Exception {
+    long id = createProductWithStock("STOCK-CONTENDED", 100);
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> statuses = new ArrayList<>();
+      for (int i = 0; i < 40; i++) {
+        statuses.add(executor.submit(() -> given().contentType("application/json").body("{\"delta\": -1}")
+            .when().post("/product/" + id + "/stock-adjustments")
+            .then().extract().statusCode()));
+      }
+      for (Future<Integer> status : statuses) {
+        assertEquals(204, status.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    given().when().get("/product/" + id).then().statusCode(200).body("stock", is(60));
+  }
+
+  @Test
+  @Order(17)
+  public void testAdjustStockInBatch() {
+    long first = createProductWithStock("STOCK-BATCH-1", 5);
+    long second = createProductWithStock("STOCK-BATCH-2", 1);
+
+    String batch = "[{\"productId\": " + first + ", \"delta\": -3},"
+        + " {\"productId\": " + second + ", \"delta\": -2},"
+        + " {\"productId\": 999999, \"delta\": 1},"
+        + " {\"productId\": " + first + ", \"delta\": -2}]";
+    given().contentType("application/json").body(batch)
+        .when().post("/product/stock-adjustments")
+        .then()
+        .statusCode(200)
+        .body("status", contains("APPLIED", "INSUFFICIENT_STOCK", "NOT_FOUND", "APPLIED"),
+            "productId[2]", is(999999));
+
+    given().when().get("/product/" + first).then().statusCode(200).body("stock", is(0));
+    given().when().get("/product/" + second).then().statusCode(200).body("stock", is(1));
+  }
+
+  @Test
+  @Order(18)
+  public void testAdjustStockInBatchInvalidRequests() {
+    given().contentType("application/json").body("[]")
+        .when().post("/product/stock-adjustments")
+        .then().statusCode(400);
+    given().contentType("application/json").body("[{\"delta\": 1}]")
+        .when().post("/product/stock-adjustments")
+        .then().statusCode(422);
+  }
+
+  @Test
+  @Order(19)
+  public void testStockAdjustmentChangesProductETag() {
+    long id = createProductWithStock("LOCKED-1", 5);
+    String etag = given().when().get("/product/" + id).then().statusCode(200).extract().header("ETag");
+
+    given().header("If-None-Match", etag).when().get("/product/" + id).then().statusCode(304);
+
+    given().contentType("application/json").body("{\"delta\": -1}")
+        .when().post("/product/" + id + "/stock-adjustments")
+        .then().statusCode(204);
+
+    Product product = new Product("LOCKED-1");
+    product.stock = 10;
+    given().contentType("application/json").header("If-Match", etag).body(product)
+        .when().put("/product/" + id)
+        .then().statusCode(412);
+    given().header("If-None-Match", etag).when().get("/product/" + id)
+        .then().statusCode(200).body("stock", is(4));
+  }
+
+  @Test
+  @Order(20)
+  public void testDeleteProductWithCurrentETag() {
+    long id = createProductWithStock("LOCKED-2", 1);
+    String etag = given().when().get("/product/" + id).then().statusCode(200).extract().header("ETag");
+
+    given().header("If-Match", "\"999\"").when().delete("/product/" + id).then().statusCode(412);
+    given().header("If-Match", etag).when().delete("/product/" + id).then().statusCode(204);
+  }
+
+  @Test
+  @Order(21)
+  public void testListProductsPageByPageIncludesUnnamedProducts() {
+    List<Long> unnamed = QuarkusTransaction.requiringNew().call(() -> {
+      Product first = new Product();
+      Product second = new Product();
+      productRepository.persist(first);
+      productRepository.persist(second);
+      return List.of(first.id, second.id);
+    });
+    try {
+      List<Number> all = given().when().get("/product").then().statusCode(200).extract().path("id");
+      List<Number> walked = new ArrayList<>();
+      String next = "/product?limit=1";
+      while (next != null) {
+        Response page = given().when().get(next).then().statusCode(200).extract().response();
+        walked.addAll(page.path("id"));
+        String link = page.header("Link");
+        next = link == null ? null : link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+      }
+
+      assertEquals(all, walked);
+      // unnamed products come last, by id
+      assertEquals(unnamed, walked.subList(walked.size() - 2, walked.size()).stream()
+          .map(Number::longValue).toList());
+    } finally {
+      QuarkusTransaction.requiringNew().run(() -> productRepository.delete("id in ?1", unnamed));
+    }
+  }
+
+  @Test
+  @Order(22)
+  public void testListProductsWithoutLimitReturnsADefaultPage() {
+    List<Long> created = QuarkusTransaction.requiringNew().call(() -> {
+      List<Long> ids = new ArrayList<>();
+      for (int i = 0; i < ProductResource.DEFAULT_PAGE_SIZE; i++) {
+        Product product = new Product(String.format("DEFAULT-PAGE-%03d", i));
+        productRepository.persist(product);
+        ids.add(product.id);
+      }
+      return ids;
+    });
+    try {
+      Response first = given().when().get("/product").then().statusCode(200).extract().response();
+      List<String> firstPage = first.path("name");
+      assertEquals(ProductResource.DEFAULT_PAGE_SIZE, firstPage.size());
+      String link = first.header("Link");
+      assertNotNull(link);
+
+      // the next page carries on where the first one stopped
+      String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+      List<String> rest = given().when().get(next).then().statusCode(200).extract().path("name");
+      assertFalse(rest.isEmpty());
+      assertFalse(rest.contains(firstPage.get(firstPage.size() - 1)));
+      assertEquals(ProductResource.DEFAULT_PAGE_SIZE,
+          firstPage.stream().filter(name -> name != null && name.startsWith("DEFAULT-PAGE-")).count()
+              + rest.stream().filter(name -> name != null && name.startsWith("DEFAULT-PAGE-")).count());
+    } finally {
+      QuarkusTransaction.requiringNew().run(() -> productRepository.delete("id in ?1", created));
+    }
+  }
+
+  @Test
+  @Order(23)
+  public void testCursorsOfTheEarlierFormatAreStillRead() {
+    createProduct("CURSOR-A", "5.00", 1);
+    createProduct("CURSOR-B", "5.00", 1);
+    // "<id>:<name>", as handed out when the cursor also carried the id
+    String cursor = Base64.getUrlEncoder().withoutPadding()
+        .encodeToString("999:CURSOR-A".getBytes(StandardCharsets.UTF_8));
+
+    given()
+        .when().get("/product?limit=1&cursor=" + cursor)
+        .then()
+        .statusCode(200)
+        .body("name", contains("CURSOR-B"));
+  }
+
+  private long createProductWithStock(String name, int stock) {
+    Product product = new Product(name);
+    product.stock = stock;
+    return given().contentType("application/json").body(product)
+        .when().post("/product")
+        .then().statusCode(201)
+        .extract().<Number>path("id").longValue();
+  }
+
+  private void createProduct(String name, String price, int stock) {
+    Product product = new Product(name);
+    product.price = new BigDecimal(price);
+    product.stock = stock;
+    given().contentType("application/json").body(product).when().post("/product").then().statusCode(201);
+  }
 }
@@ -4,6 +4,8 @@ import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 
 @QuarkusTest
@@ -36,4 +38,11 @@ public class LegacyStoreManagerGatewayTest {
         // The catch block in LegacyStoreManagerGateway should handle it.
         assertDoesNotThrow(() -> legacyStoreManagerGateway.createStoreOnLegacySystem(null));
     }
+
+    @Test
+    public void testSyncStoresOnLegacySystem() {
+        assertDoesNotThrow(() -> legacyStoreManagerGateway.syncStoresOnLegacySystem(List.of(
+                new LegacyStoreChange(LegacyStoreChange.Type.CREATED, 1L, "TestStoreBatch1", 10),
+                new LegacyStoreChange(LegacyStoreChange.Type.UPDATED, 2L, "TestStoreBatch2", 20))));
+    }
 }
@@ -0,0 +1,190 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@QuarkusTest
+public class LegacyStoreOutboxRelayTest {
+
+    @InjectMock
+    LegacyStoreManagerGateway legacyStoreManagerGateway;
+
+    @Inject
+    LegacyStoreOutboxRelay relay;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        QuarkusTransaction.requiringNew().run(() -> StoreOutboxEntry.deleteAll());
+    }
+
+    // a change past the debounce window (1s) but not yet overdue (10s)
+    private void record(LegacyStoreChange.Type type, long storeId, String name, int quantity) {
+        record(type, storeId, name, quantity, Duration.ofSeconds(2));
+    }
+
+    private void record(LegacyStoreChange.Type type, long storeId, String name, int quantity, Duration age) {
+        StoreOutboxEntry entry = new StoreOutboxEntry();
+        entry.type = type;
+        entry.storeId = storeId;
+        entry.name = name;
+        entry.quantityProductsInStock = quantity;
+        entry.createdAt = LocalDateTime.now().minus(age);
+        QuarkusTransaction.requiringNew().run(entry::persist);
+    }
+
+    private long outboxSize() {
+        return QuarkusTransaction.requiringNew().call(() -> StoreOutboxEntry.count());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRelayCoalescesChangesPerStore() throws Exception {
+        record(LegacyStoreChange.Type.CREATED, 100L, "NEW STORE", 1);
+        record(LegacyStoreChange.Type.UPDATED, 200L, "OTHER STORE", 5);
+        record(LegacyStoreChange.Type.UPDATED, 100L, "NEW STORE", 2);
+        record(LegacyStoreChange.Type.UPDATED, 100L, "NEW STORE RENAMED", 3);
+
+        assertTrue(relay.relay());
+
+        ArgumentCaptor<List<LegacyStoreChange>> sent = ArgumentCaptor.forClass(List.class);
+        verify(legacyStoreManagerGateway).syncStoresOnLegacySystem(sent.capture());
+        List<LegacyStoreChange> changes = sent.getValue();
+        assertEquals(2, changes.size());
+        assertEquals(100L, changes.get(0).storeId);
+        assertEquals(LegacyStoreChange.Type.CREATED, changes.get(0).type);
+        assertEquals("NEW STORE RENAMED", changes.get(0).name);
+        assertEquals(3, changes.get(0).quantityProductsInStock);
+        assertEquals(200L, changes.get(1).storeId);
+        assertEquals(LegacyStoreChange.Type.UPDATED, changes.get(1).type);
+        assertEquals(0L, outboxSize());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRelayHoldsBackStoresStillChangingWithinDebounceWindow() throws Exception {
+        double coalescedBefore = meterRegistry.counter("legacy.store.outbox.coalesced").count();
+        record(LegacyStoreChange.Type.UPDATED, 100L, "BUSY STORE", 1);
+        record(LegacyStoreChange.Type.UPDATED, 100L, "BUSY STORE", 2, Duration.ZERO);
+        record(LegacyStoreChange.Type.UPDATED, 200L, "QUIET STORE", 5);
+        record(LegacyStoreChange.Type.UPDATED, 200L, "QUIET STORE", 6);
+
+        assertTrue(relay.relay());
+
+        ArgumentCaptor<List<LegacyStoreChange>> sent = ArgumentCaptor.forClass(List.class);
+        verify(legacyStoreManagerGateway).syncStoresOnLegacySystem(sent.capture());
+        assertEquals(1, sent.getValue().size());
+        assertEquals(200L, sent.getValue().get(0).storeId);
+        assertEquals(6, sent.getValue().get(0).quantityProductsInStock);
+        assertEquals(1.0, meterRegistry.counter("legacy.store.outbox.coalesced").count() - coalescedBefore);
+        assertEquals(2L, outboxSize());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRelaySendsStoreThatKeepsChangingOnceOverdue() throws Exception {
+        record(LegacyStoreChange.Type.UPDATED, 100L, "BUSY STORE", 1, Duration.ofSeconds(11));
+        record(LegacyStoreChange.Type.UPDATED, 100L, "BUSY STORE", 2, Duration.ZERO);
+
+        assertTrue(relay.relay());
+
+        ArgumentCaptor<List<LegacyStoreChange>> sent = ArgumentCaptor.forClass(List.class);
+        verify(legacyStoreManagerGateway).syncStoresOnLegacySystem(sent.capture());
+        assertEquals(1, sent.getValue().size());
+        assertEquals(2, sent.getValue().get(0).quantityProductsInStock);
+        assertEquals(0L, outboxSize());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRelaySkipsStoreClaimedByAnotherInstance() throws Exception {
+        record(LegacyStoreChange.Type.UPDATED, 100L, "CLAIMED STORE", 1);
+        record(LegacyStoreChange.Type.UPDATED, 100L, "CLAIMED STORE", 2);
+        record(LegacyStoreChange.Type.UPDATED, 200L, "FREE STORE", 5);
+
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // another instance holding the claim on store 100, i.e. the lock on its oldest entry
+            Future<?> otherInstance = executor.submit(() -> QuarkusTransaction.requiringNew().run(() -> {
+                StoreOutboxEntry.find("storeId", Sort.by("id"), 100L)
+                        .withLock(LockModeType.PESSIMISTIC_WRITE)
+                        .firstResult();
+                claimed.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(claimed.await(10, TimeUnit.SECONDS));
+
+            assertTrue(relay.relay());
+
+            release.countDown();
+            otherInstance.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        ArgumentCaptor<List<LegacyStoreChange>> sent = ArgumentCaptor.forClass(List.class);
+        verify(legacyStoreManagerGateway).syncStoresOnLegacySystem(sent.capture());
+        assertEquals(1, sent.getValue().size());
+        assertEquals(200L, sent.getValue().get(0).storeId);
+        // none of the changes of the claimed store were taken, not even the unlocked newer one
+        assertEquals(2L, outboxSize());
+    }
+
+    @Test
+    public void testFailedLegacyWriteKeepsEntriesForRetry() throws Exception {
+        record(LegacyStoreChange.Type.UPDATED, 100L, "STORE", 1);
+        doThrow(new IOException("legacy system down"))
+                .doNothing()
+                .when(legacyStoreManagerGateway).syncStoresOnLegacySystem(anyList());
+
+        assertFalse(relay.relay());
+        assertEquals(1L, outboxSize());
+
+        assertTrue(relay.relay());
+        verify(legacyStoreManagerGateway, times(2)).syncStoresOnLegacySystem(anyList());
+        assertEquals(0L, outboxSize());
+    }
+
+    @Test
+    public void testRelayWithEmptyOutboxDoesNotCallLegacySystem() throws Exception {
+        assertTrue(relay.relay());
+
+        verify(legacyStoreManagerGateway, never()).syncStoresOnLegacySystem(anyList());
+    }
+}
@@ -0,0 +1,100 @@
+package com.fulfilment.application.monolith.stores;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LegacyStoreSegmentWriterTest {
+
+    @TempDir
+    Path directory;
+
+    private static LegacyStoreChange change(long storeId, String name) {
+        return new LegacyStoreChange(LegacyStoreChange.Type.UPDATED, storeId, name, 7);
+    }
+
+    @Test
+    public void testAppendsOneLinePerChange() throws IOException {
+        try (LegacyStoreSegmentWriter writer = new LegacyStoreSegmentWriter(directory, 1024, 256, 8, true)) {
+            long bytes = writer.append(List.of(
+                    new LegacyStoreChange(LegacyStoreChange.Type.CREATED, 1L, "TONSTAD", 10),
+                    change(2L, "KALLAX")));
+            writer.append(List.of(change(3L, "BESTÅ")));
+
+            List<String> lines = Files.readAllLines(writer.segmentPath(0));
+            assertEquals(List.of(
+                    "Store created. [ id = 1 ] [ name =TONSTAD ] [ items on stock =10]",
+                    "Store updated. [ id = 2 ] [ name =KALLAX ] [ items on stock =7]",
+                    "Store updated. [ id = 3 ] [ name =BESTÅ ] [ items on stock =7]"), lines);
+            assertEquals(lines.get(0).length() + lines.get(1).length() + 2, bytes);
+        }
+    }
+
+    @Test
+    public void testBatchLargerThanBufferIsWrittenCompletely() throws IOException {
+        try (LegacyStoreSegmentWriter writer = new LegacyStoreSegmentWriter(directory, 1 << 20, 128, 8, false)) {
+            List<LegacyStoreChange> changes = Stream.iterate(1L, id -> id + 1).limit(100)
+                    .map(id -> change(id, "STORE-" + id)).toList();
+
+            writer.append(changes);
+
+            List<String> lines = Files.readAllLines(writer.segmentPath(0));
+            assertEquals(100, lines.size());
+            assertEquals("Store updated. [ id = 100 ] [ name =STORE-100 ] [ items on stock =7]", lines.get(99));
+        }
+    }
+
+    @Test
+    public void testRollsSegmentsOnRecordBoundariesAndKeepsTheLatest() throws IOException {
+        try (LegacyStoreSegmentWriter writer = new LegacyStoreSegmentWriter(directory, 150, 128, 2, false)) {
+            for (long id = 1; id <= 6; id++) {
+                writer.append(List.of(change(id, "STORE")));
+            }
+
+            // two records per segment, of which only the last two segments are kept
+            assertFalse(Files.exists(writer.segmentPath(0)));
+            assertEquals(2, Files.readAllLines(writer.segmentPath(1)).size());
+            assertEquals(2, Files.readAllLines(writer.segmentPath(2)).size());
+            assertTrue(Files.readAllLines(writer.segmentPath(2)).get(0).contains("[ id = 5 ]"));
+        }
+    }
+
+    @Test
+    public void testResumesOnLatestSegmentAfterRestart() throws IOException {
+        try (LegacyStoreSegmentWriter writer = new LegacyStoreSegmentWriter(directory, 150, 128, 8, false)) {
+            for (long id = 1; id <= 3; id++) {
+                writer.append(List.of(change(id, "STORE")));
+            }
+        }
+
+        try (LegacyStoreSegmentWriter writer = new LegacyStoreSegmentWriter(directory, 1024, 128, 8, false)) {
+            writer.append(List.of(change(4L, "STORE")));
+
+            List<String> lines = Files.readAllLines(writer.segmentPath(1));
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(1).contains("[ id = 4 ]"));
+        }
+    }
+
+    @Test
+    public void testRecordLargerThanBufferIsRejected() throws IOException {
+        try (LegacyStoreSegmentWriter writer = new LegacyStoreSegmentWriter(directory, 1024, 64, 8, false)) {
+            assertThrows(IOException.class, () -> writer.append(List.of(change(1L, "A NAME TOO LONG FOR THE BUFFER"))));
+
+            // the failed batch leaves nothing behind and the next one is written
+            writer.append(List.of(change(2L, "STORE")));
+            assertEquals(List.of("Store updated. [ id = 2 ] [ name =STORE ] [ items on stock =7]"),
+                    Files.readAllLines(writer.segmentPath(0)));
+        }
+    }
+}
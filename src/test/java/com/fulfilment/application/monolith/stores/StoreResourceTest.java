@@ -1,11 +1,9 @@
 package com.fulfilment.application.monolith.stores;
 
+import io.quarkus.panache.common.Sort;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.TestTransaction;
 import io.quarkus.test.junit.QuarkusTest;
-import jakarta.inject.Inject;
-import jakarta.transaction.Status;
-import jakarta.transaction.TransactionSynchronizationRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -14,10 +12,10 @@ import org.junit.jupiter.api.TestMethodOrder;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doAnswer;
-import static org.mockito.Mockito.verify;
+import static org.hamcrest.CoreMatchers.not;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @QuarkusTest
 @TestTransaction
@@ -27,9 +25,6 @@ public class StoreResourceTest {
     @InjectMock
     LegacyStoreManagerGateway legacyStoreManagerGateway;
 
-    @Inject
-    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
-
     @Test
     @Order(1)
     public void testGetAllStores() {
@@ -67,7 +62,8 @@ public class StoreResourceTest {
                 .body("name", is("HAARLEM UPDATED"))
                 .body("quantityProductsInStock", is(20));
 
-        verify(legacyStoreManagerGateway).updateStoreOnLegacySystem(any(Store.class));
+        assertLatestOutboxEntry(1L, LegacyStoreChange.Type.UPDATED, "HAARLEM UPDATED", 20);
+        verifyNoInteractions(legacyStoreManagerGateway);
     }
 
     @Test
@@ -86,7 +82,7 @@ public class StoreResourceTest {
                 .body("name", is("HAARLEM PATCHED"))
                 .body("quantityProductsInStock", is(30));
 
-        verify(legacyStoreManagerGateway).updateStoreOnLegacySystem(any(Store.class));
+        assertLatestOutboxEntry(1L, LegacyStoreChange.Type.UPDATED, "HAARLEM PATCHED", 30);
     }
 
     @Test
@@ -105,32 +101,32 @@ public class StoreResourceTest {
 
     @Test
     @Order(6)
-    public void testCreateStoreCallsLegacySystemAfterCommit() {
+    public void testCreateStoreWritesOutboxEntry() {
         Store store = new Store();
         store.name = "Test Store";
         store.quantityProductsInStock = 10;
 
-        final int[] statusAtCall = {-1};
-        doAnswer(invocation -> {
-            statusAtCall[0] = transactionSynchronizationRegistry.getTransactionStatus();
-            return null;
-        }).when(legacyStoreManagerGateway).createStoreOnLegacySystem(any(Store.class));
-
-        given()
+        int id = given()
           .contentType("application/json")
           .body(store)
           .when().post("/stores")
           .then()
           .statusCode(201)
-          .body("name", is("Test Store"));
-
-        verify(legacyStoreManagerGateway).createStoreOnLegacySystem(any(Store.class));
-        
-        // In afterCompletion(STATUS_COMMITTED), the transaction might already be in STATUS_COMMITTED (3) 
-        // or STATUS_NO_TRANSACTION (6) depending on implementation details.
-        // Usually, in JTA afterCompletion, the transaction is already completed.
-        Assertions.assertTrue(statusAtCall[0] == Status.STATUS_COMMITTED || statusAtCall[0] == Status.STATUS_NO_TRANSACTION, 
-            "Transaction should be committed (3) or no transaction (6) but was " + statusAtCall[0]);
+          .body("name", is("Test Store"))
+          .extract().path("id");
+
+        // the legacy system is only called by the outbox relay, not by the request
+        assertLatestOutboxEntry((long) id, LegacyStoreChange.Type.CREATED, "Test Store", 10);
+        verifyNoInteractions(legacyStoreManagerGateway);
+    }
+
+    private void assertLatestOutboxEntry(Long storeId, LegacyStoreChange.Type type, String name, int quantity) {
+        StoreOutboxEntry entry = StoreOutboxEntry.<StoreOutboxEntry>find("storeId", Sort.descending("id"), storeId)
+                .firstResult();
+        Assertions.assertNotNull(entry, "no outbox entry for store " + storeId);
+        Assertions.assertEquals(type, entry.type);
+        Assertions.assertEquals(name, entry.name);
+        Assertions.assertEquals(quantity, entry.quantityProductsInStock);
     }
 
     @Test
@@ -201,4 +197,54 @@ public class StoreResourceTest {
                 .then()
                 .statusCode(404);
     }
+
+    @Test
+    public void testGetSingleStoreNotModified() {
+        String etag = given().when().get("/stores/2").then().statusCode(200).extract().header("ETag");
+
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/stores/2")
+                .then()
+                .statusCode(304)
+                .header("ETag", is(etag));
+    }
+
+    @Test
+    public void testUpdateStoreWithStaleETag() {
+        Store store = new Store();
+        store.name = "AMSTERDAM";
+        store.quantityProductsInStock = 6;
+        String etag = given().when().get("/stores/2").then().statusCode(200).extract().header("ETag");
+
+        String updated = given()
+                .contentType("application/json")
+                .header("If-Match", etag)
+                .body(store)
+                .when().put("/stores/2")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)))
+                .extract().header("ETag");
+
+        store.quantityProductsInStock = 7;
+        given()
+                .contentType("application/json")
+                .header("If-Match", etag)
+                .body(store)
+                .when().patch("/stores/2")
+                .then()
+                .statusCode(412);
+        given()
+                .header("If-Match", etag)
+                .when().delete("/stores/2")
+                .then()
+                .statusCode(412);
+        given()
+                .when().get("/stores/2")
+                .then()
+                .statusCode(200)
+                .header("ETag", is(updated))
+                .body("quantityProductsInStock", is(6));
+    }
 }
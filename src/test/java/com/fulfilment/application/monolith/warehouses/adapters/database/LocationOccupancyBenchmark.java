@@ -0,0 +1,139 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reads the occupancy of a location holding {@code benchmark.active} (default 5) active warehouses
+ * and a history of {@code benchmark.archived} (default 200k) archived ones, with the covering index
+ * of V7 and, for comparison, with the {@code (location, archivedAt)} index of V2 it replaces.
+ * Reports the median latency and the plan of each.
+ *
+ * <p>Excluded from the regular build, run it with {@code mvn test -Pbenchmark -Dtest=LocationOccupancyBenchmark -Dexec.skip}.
+ */
+@QuarkusTest
+@Tag("benchmark")
+public class LocationOccupancyBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(LocationOccupancyBenchmark.class);
+
+    private static final String LOCATION = "OCCUPANCY-001";
+    private static final int ACTIVE = Integer.getInteger("benchmark.active", 5);
+    private static final int ARCHIVED = Integer.getInteger("benchmark.archived", 200_000);
+    private static final int BATCH_SIZE = 50;
+    private static final int RUNS = 1001;
+
+    private static final String COVERING_INDEX =
+            "create index warehouse_location_occupancy_idx on warehouse (location)"
+                    + " include (capacity, businessUnitCode) where archivedAt is null";
+    private static final String V2_INDEX = "create index warehouse_location_idx on warehouse (location, archivedAt)";
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    WarehouseRepository warehouseRepository;
+
+    @Inject
+    DataSource dataSource;
+
+    @AfterEach
+    public void cleanup() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            warehouseRepository.delete("location", LOCATION);
+            execute("drop index if exists warehouse_location_idx");
+            execute("drop index if exists warehouse_location_occupancy_idx");
+            execute(COVERING_INDEX);
+        });
+    }
+
+    @Test
+    public void benchmarkOccupancy() throws SQLException {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Session session = entityManager.unwrap(Session.class);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < ACTIVE + ARCHIVED; i++) {
+                DbWarehouse warehouse = new DbWarehouse();
+                warehouse.businessUnitCode = "OCCUPANCY-" + i;
+                warehouse.location = LOCATION;
+                warehouse.capacity = 10;
+                warehouse.stock = 1;
+                warehouse.createdAt = now;
+                warehouse.archivedAt = i < ACTIVE ? null : now;
+                session.persist(warehouse);
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            execute("drop index warehouse_location_occupancy_idx");
+            execute(V2_INDEX);
+        });
+        double v2 = measure("(location, archivedAt) index of V2");
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            execute("drop index warehouse_location_idx");
+            execute(COVERING_INDEX);
+        });
+        double covering = measure("covering index of V7");
+
+        LOGGER.infof("Occupancy of %d active and %d archived warehouses: covering %.3f ms, V2 %.3f ms",
+                ACTIVE, ARCHIVED, covering, v2);
+    }
+
+    private double measure(String index) throws SQLException {
+        // as autovacuum would: the visibility map lets an index-only scan skip the table
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("vacuum analyze warehouse");
+        }
+        LocationOccupancy occupancy = warehouseRepository.getLocationOccupancy(LOCATION, null);
+        assertEquals(ACTIVE, occupancy.activeWarehouses);
+        assertEquals(ACTIVE * 10L, occupancy.totalCapacity);
+
+        @SuppressWarnings("unchecked")
+        List<String> plan = QuarkusTransaction.requiringNew().call(() -> entityManager
+                .createNativeQuery("explain (analyze, buffers) select count(*), coalesce(sum(capacity), 0)"
+                        + " from warehouse where location = ?1 and archivedAt is null")
+                .setParameter(1, LOCATION)
+                .getResultList());
+        LOGGER.infof("Plan with the %s:%n%s", index, String.join("\n", plan));
+
+        long[] nanos = new long[RUNS];
+        // warm up before measuring
+        for (int i = 0; i < RUNS; i++) {
+            QuarkusTransaction.requiringNew().call(() -> warehouseRepository.getLocationOccupancy(LOCATION, null));
+        }
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            QuarkusTransaction.requiringNew().call(() -> warehouseRepository.getLocationOccupancy(LOCATION, null));
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[RUNS / 2] / 1e6;
+    }
+
+    private void execute(String sql) {
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+}
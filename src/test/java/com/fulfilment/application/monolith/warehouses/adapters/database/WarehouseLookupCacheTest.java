@@ -0,0 +1,155 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@QuarkusTest
+public class WarehouseLookupCacheTest {
+
+    @Inject
+    WarehouseLookupCache lookupCache;
+
+    @Inject
+    WarehouseRepository warehouseRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void testLookupsAreReadThrough() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Warehouse> loader = () -> {
+            loads.incrementAndGet();
+            return warehouse(1_001L, "CACHE-001");
+        };
+        double hits = hits(WarehouseLookupCache.BY_ID);
+
+        Warehouse first = lookupCache.findByInternalId(1_001L, loader);
+        first.capacity = 99;
+        Warehouse second = lookupCache.findByInternalId(1_001L, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(hits + 1, hits(WarehouseLookupCache.BY_ID));
+        // every caller gets its own copy
+        assertNotSame(first, second);
+        assertEquals(20, second.capacity);
+
+        lookupCache.invalidate(List.of(warehouse(1_001L, "CACHE-001")));
+        lookupCache.findByInternalId(1_001L, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testLookupsByBusinessUnitCodeAreReadThrough() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Warehouse> loader = () -> {
+            loads.incrementAndGet();
+            return warehouse(1_003L, "CACHE-005");
+        };
+        double hits = hits(WarehouseLookupCache.BY_BUSINESS_UNIT_CODE);
+
+        lookupCache.findByBusinessUnitCode("CACHE-005", loader);
+        assertEquals("CACHE-005", lookupCache.findByBusinessUnitCode("CACHE-005", loader).businessUnitCode);
+
+        assertEquals(1, loads.get());
+        assertEquals(hits + 1, hits(WarehouseLookupCache.BY_BUSINESS_UNIT_CODE));
+
+        lookupCache.invalidate(List.of(warehouse(1_003L, "CACHE-005")));
+        lookupCache.findByBusinessUnitCode("CACHE-005", loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testMissesAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Warehouse> loader = () -> {
+            loads.incrementAndGet();
+            return null;
+        };
+
+        assertNull(lookupCache.findByInternalId(1_002L, loader));
+        assertNull(lookupCache.findByInternalId(1_002L, loader));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testLookupsInTransactionBypassTheCache() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Warehouse> loader = () -> {
+            loads.incrementAndGet();
+            return warehouse(1_000L, "CACHE-002");
+        };
+
+        QuarkusTransaction.requiringNew().run(() -> lookupCache.findByInternalId(1_000L, loader));
+        QuarkusTransaction.requiringNew().run(() -> lookupCache.findByInternalId(1_000L, loader));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testWritesInvalidateCachedLookups() {
+        warehouseRepository.create(warehouse(null, "CACHE-003"));
+        Warehouse created = warehouseRepository.findByBusinessUnitCode("CACHE-003");
+        assertNotNull(created);
+
+        assertNull(warehouseRepository.findCachedByInternalId(created.id).archivedAt);
+        assertEquals(created.id, warehouseRepository.findCachedByBusinessUnitCode("CACHE-003").id);
+        warehouseRepository.remove(created);
+        assertNotNull(warehouseRepository.findCachedByInternalId(created.id).archivedAt);
+        assertNull(warehouseRepository.findCachedByBusinessUnitCode("CACHE-003"));
+
+        // the replacement takes over the code
+        warehouseRepository.create(warehouse(null, "CACHE-003"));
+        Warehouse replacement = warehouseRepository.findCachedByBusinessUnitCode("CACHE-003");
+        assertNotNull(replacement);
+        warehouseRepository.remove(replacement);
+    }
+
+    @Test
+    public void testStoreLookupsGuardingWritesBypassTheCache() {
+        warehouseRepository.create(warehouse(null, "CACHE-004"));
+        Warehouse created = warehouseRepository.findByBusinessUnitCode("CACHE-004");
+        assertEquals(20, warehouseRepository.findCachedByInternalId(created.id).capacity);
+
+        // a write the cache does not hear about, as from another instance
+        QuarkusTransaction.requiringNew().run(() -> warehouseRepository.getEntityManager()
+                .createQuery("update DbWarehouse set capacity = 30 where id = :id")
+                .setParameter("id", created.id)
+                .executeUpdate());
+
+        Warehouse current = warehouseRepository.findByInternalId(created.id);
+        assertEquals(30, current.capacity);
+        assertEquals(20, warehouseRepository.findCachedByInternalId(created.id).capacity);
+        warehouseRepository.remove(current);
+    }
+
+    private double hits(String cache) {
+        FunctionCounter hits = meterRegistry.find("cache.gets").tag("cache", cache).tag("result", "hit").functionCounter();
+        return hits == null ? 0 : hits.count();
+    }
+
+    private static Warehouse warehouse(Long id, String businessUnitCode) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.id = id;
+        warehouse.businessUnitCode = businessUnitCode;
+        warehouse.location = "HELMOND-001";
+        warehouse.capacity = 20;
+        warehouse.stock = 5;
+        return warehouse;
+    }
+}
@@ -0,0 +1,56 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping between the domain model and the entity. Reads no longer go through the entity, they are
+ * projected into {@link Warehouse} by its all-fields constructor, which is measured as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarehouseMappingBenchmark {
+
+    private final WarehouseRepository repository = new WarehouseRepository();
+
+    private Warehouse warehouse;
+    private DbWarehouse entity;
+
+    @Setup
+    public void setup() {
+        warehouse = new Warehouse(42L, "MWH.042", "AMSTERDAM-001", 100, 50, LocalDateTime.now(), null);
+        entity = repository.toDb(warehouse);
+    }
+
+    @Benchmark
+    public DbWarehouse toDb() {
+        return repository.toDb(warehouse);
+    }
+
+    @Benchmark
+    public Warehouse entityToWarehouse() {
+        return entity.toWarehouse();
+    }
+
+    @Benchmark
+    public Warehouse projection() {
+        return new Warehouse(entity.id, entity.businessUnitCode, entity.location, entity.capacity,
+                entity.stock, entity.createdAt, entity.archivedAt);
+    }
+}
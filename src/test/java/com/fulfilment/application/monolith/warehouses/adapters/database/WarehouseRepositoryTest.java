@@ -0,0 +1,261 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+@TestTransaction
+public class WarehouseRepositoryTest {
+
+    @Inject
+    WarehouseRepository warehouseRepository;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    public void testReadsDoNotLoadManagedEntities() {
+        warehouseRepository.getEntityManager().clear();
+
+        Warehouse byCode = warehouseRepository.findByBusinessUnitCode("MWH.001");
+        Warehouse byId = warehouseRepository.findByInternalId(byCode.id);
+        warehouseRepository.findByLocation("ZWOLLE-001");
+        warehouseRepository.findPage(null, 10);
+
+        assertEquals("ZWOLLE-001", byId.location);
+        assertEquals(100, byId.capacity);
+        assertEquals(10, byId.stock);
+        assertNotNull(byId.createdAt);
+        assertNull(byId.archivedAt);
+        assertEquals(0, warehouseRepository.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    public void testFindByInternalIdNotFound() {
+        assertNull(warehouseRepository.findByInternalId(99999L));
+    }
+
+    @Test
+    public void testOccupancyOfSeededLocation() {
+        LocationOccupancy occupancy = warehouseRepository.getLocationOccupancy("ZWOLLE-001", null);
+
+        assertEquals(1, occupancy.activeWarehouses);
+        assertEquals(100, occupancy.totalCapacity);
+    }
+
+    @Test
+    public void testOccupancyOfEmptyLocation() {
+        LocationOccupancy occupancy = warehouseRepository.getLocationOccupancy("VETSBY-001", null);
+
+        assertEquals(0, occupancy.activeWarehouses);
+        assertEquals(0, occupancy.totalCapacity);
+    }
+
+    @Test
+    public void testOccupancyExcludesBusinessUnitCode() {
+        warehouseRepository.create(createWarehouse("REPO-004", "ZWOLLE-001", 20, 10));
+
+        LocationOccupancy all = warehouseRepository.getLocationOccupancy("ZWOLLE-001", null);
+        assertEquals(2, all.activeWarehouses);
+        assertEquals(120, all.totalCapacity);
+
+        LocationOccupancy excluding = warehouseRepository.getLocationOccupancy("ZWOLLE-001", "MWH.001");
+        assertEquals(1, excluding.activeWarehouses);
+        assertEquals(20, excluding.totalCapacity);
+    }
+
+    @Test
+    public void testOccupancyFollowsCreateAndArchive() {
+        Warehouse created = createWarehouse("REPO-001", "HELMOND-001", 30, 10);
+        warehouseRepository.create(created);
+        assertNotNull(created.id);
+        assertNotNull(created.createdAt);
+        warehouseRepository.create(createWarehouse("REPO-002", "HELMOND-001", 15, 5));
+
+        LocationOccupancy occupancy = warehouseRepository.getLocationOccupancy("HELMOND-001", null);
+        assertEquals(2, occupancy.activeWarehouses);
+        assertEquals(45, occupancy.totalCapacity);
+
+        warehouseRepository.remove(warehouseRepository.findByBusinessUnitCode("REPO-001"));
+
+        occupancy = warehouseRepository.getLocationOccupancy("HELMOND-001", null);
+        assertEquals(1, occupancy.activeWarehouses);
+        assertEquals(15, occupancy.totalCapacity);
+    }
+
+    @Test
+    public void testOccupancyFollowsLocationChange() {
+        warehouseRepository.create(createWarehouse("REPO-003", "EINDHOVEN-001", 20, 10));
+
+        Warehouse moved = warehouseRepository.findByBusinessUnitCode("REPO-003");
+        moved.location = "ZWOLLE-002";
+        moved.capacity = 25;
+        warehouseRepository.update(moved);
+
+        LocationOccupancy from = warehouseRepository.getLocationOccupancy("EINDHOVEN-001", null);
+        assertEquals(0, from.activeWarehouses);
+        assertEquals(0, from.totalCapacity);
+        LocationOccupancy to = warehouseRepository.getLocationOccupancy("ZWOLLE-002", null);
+        assertEquals(1, to.activeWarehouses);
+        assertEquals(25, to.totalCapacity);
+    }
+
+    @Test
+    public void testCreateAllAssignsIdsAndCreationTime() {
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            warehouses.add(createWarehouse("REPO-BATCH-" + i, "VETSBY-001", 1, 0));
+        }
+
+        warehouseRepository.createAll(warehouses);
+
+        assertEquals(120, warehouses.stream().map(w -> w.id).distinct().count());
+        assertNotNull(warehouses.get(0).createdAt);
+        assertEquals(warehouses.get(119).id, warehouseRepository.findByBusinessUnitCode("REPO-BATCH-119").id);
+        assertEquals(120, warehouseRepository.getLocationOccupancy("VETSBY-001", null).activeWarehouses);
+    }
+
+    @Test
+    @TestTransaction
+    public void testCreateAllLeavesTheCallersEntitiesManaged() {
+        DbWarehouse held = warehouseRepository.findById(1L);
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            warehouses.add(createWarehouse("REPO-HELD-" + i, "AMSTERDAM-002", 1, 0));
+        }
+
+        warehouseRepository.createAll(warehouses);
+
+        assertTrue(warehouseRepository.getEntityManager().contains(held));
+        assertTrue(warehouses.stream().allMatch(w -> Long.valueOf(0).equals(w.version)));
+    }
+
+    @Test
+    public void testOccupanciesOfSeveralLocations() {
+        Map<String, LocationOccupancy> occupancies =
+                warehouseRepository.getLocationOccupancies(List.of("ZWOLLE-001", "VETSBY-001"));
+
+        assertEquals(1, occupancies.get("ZWOLLE-001").activeWarehouses);
+        assertEquals(100, occupancies.get("ZWOLLE-001").totalCapacity);
+        // locations without active warehouses are absent
+        assertNull(occupancies.get("VETSBY-001"));
+        assertTrue(warehouseRepository.getLocationOccupancies(List.of()).isEmpty());
+    }
+
+    @Test
+    public void testFindActiveBusinessUnitCodes() {
+        warehouseRepository.create(createWarehouse("REPO-005", "HELMOND-001", 10, 5));
+        warehouseRepository.remove(warehouseRepository.findByBusinessUnitCode("REPO-005"));
+
+        assertEquals(
+                Set.of("MWH.001"),
+                warehouseRepository.findActiveBusinessUnitCodes(List.of("MWH.001", "REPO-005", "UNKNOWN")));
+    }
+
+    @Test
+    public void testFindCachedByBusinessUnitCodeUsesQueryCache() {
+        // creates the region first: Hibernate remembers a region it was asked statistics of too early
+        // as one that does not exist
+        warehouseRepository.findCachedByBusinessUnitCode("MWH.012");
+        CacheRegionStatistics region = sessionFactory.getStatistics()
+                .getQueryRegionStatistics(WarehouseRepository.BY_BUSINESS_UNIT_CODE_REGION);
+        long hits = region.getHitCount();
+        long puts = region.getPutCount();
+
+        assertEquals("MWH.012", warehouseRepository.findCachedByBusinessUnitCode("MWH.012").businessUnitCode);
+        assertEquals(hits + 1, region.getHitCount());
+
+        // the lookup that guards writes always reads the database
+        assertEquals("MWH.012", warehouseRepository.findByBusinessUnitCode("MWH.012").businessUnitCode);
+        assertEquals(hits + 1, region.getHitCount());
+        assertEquals(puts, region.getPutCount());
+
+        // a warehouse write invalidates the cached lookups
+        warehouseRepository.create(createWarehouse("REPO-006", "HELMOND-001", 10, 5));
+        assertEquals("MWH.012", warehouseRepository.findCachedByBusinessUnitCode("MWH.012").businessUnitCode);
+        assertEquals(hits + 1, region.getHitCount());
+        assertNotNull(warehouseRepository.findCachedByBusinessUnitCode("REPO-006"));
+    }
+
+    @Test
+    public void testUpdateIncrementsVersionAndRefusesStaleOne() {
+        Warehouse created = createWarehouse("REPO-007", "HELMOND-001", 10, 5);
+        warehouseRepository.create(created);
+        assertEquals(0L, created.version);
+
+        Warehouse stale = warehouseRepository.findByInternalId(created.id);
+        Warehouse current = warehouseRepository.findByInternalId(created.id);
+        current.stock = 6;
+        warehouseRepository.update(current);
+        assertEquals(1L, current.version);
+
+        stale.stock = 7;
+        assertThrows(OptimisticLockException.class, () -> warehouseRepository.update(stale));
+        assertEquals(6, warehouseRepository.findByInternalId(created.id).stock);
+    }
+
+    @Test
+    public void testLockForWriteBlocksConcurrentWritersUntilCommit() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> holder = executor.submit(() -> QuarkusTransaction.requiringNew().run(() -> {
+                warehouseRepository.lockForWrite(List.of("ZWOLLE-001"), List.of());
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+            Future<?> writer = executor.submit(() -> QuarkusTransaction.requiringNew().run(
+                    () -> warehouseRepository.lockForWrite(List.of("ZWOLLE-001"), List.of("OTHER"))));
+            assertThrows(TimeoutException.class, () -> writer.get(500, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+            writer.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private Warehouse createWarehouse(String buCode, String location, int capacity, int stock) {
+        Warehouse w = new Warehouse();
+        w.businessUnitCode = buCode;
+        w.location = location;
+        w.capacity = capacity;
+        w.stock = stock;
+        return w;
+    }
+}
@@ -0,0 +1,250 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import com.warehouse.api.beans.Warehouse;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The {@code /warehouse} API built with the reactive store adapter. The reactive client only talks
+ * to PostgreSQL, so this is skipped when the tests run on H2.
+ */
+@QuarkusTest
+@TestProfile(ReactiveWarehouseResourceTest.ReactiveAdapterProfile.class)
+@DisabledIfSystemProperty(named = "quarkus.datasource.db-kind", matches = "h2")
+public class ReactiveWarehouseResourceTest {
+
+    private static final String path = "warehouse";
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    public static class ReactiveAdapterProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "warehouse.store.adapter", "reactive",
+                    "quarkus.datasource.reactive", "true");
+        }
+    }
+
+    @Test
+    public void testListAndGet() {
+        given()
+                .when().get(path + "?limit=2")
+                .then()
+                .statusCode(200)
+                .body("$", hasSize(2), "[0].businessUnitCode", is("MWH.001"))
+                .header("Link", containsString("rel=\"next\""));
+
+        // the collection version is read off the event loop
+        String etag = given().when().get(path + "?limit=2").then().statusCode(200).extract().header("ETag");
+        given()
+                .header("If-None-Match", etag)
+                .when().get(path + "?limit=2")
+                .then()
+                .statusCode(304);
+
+        given()
+                .when().get(path + "/1")
+                .then()
+                .statusCode(200)
+                .body("businessUnitCode", is("MWH.001"));
+
+        given()
+                .when().get(path + "/999999")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    public void testStream() {
+        given()
+                .when().get(path + "/stream")
+                .then()
+                .statusCode(200)
+                .body(containsString("MWH.001"), containsString("MWH.023"));
+    }
+
+    @Test
+    public void testCreateReplaceAndArchive() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode("REACTIVE-001");
+        warehouse.setLocation("AMSTERDAM-002");
+        warehouse.setCapacity(20);
+        warehouse.setStock(10);
+
+        String id = given()
+                .contentType("application/json")
+                .body(warehouse)
+                .when().post(path)
+                .then()
+                .statusCode(200)
+                .body("businessUnitCode", is("REACTIVE-001"), "id", notNullValue())
+                .extract().path("id");
+
+        given()
+                .when().get(path + "/" + id)
+                .then()
+                .statusCode(200)
+                .body("businessUnitCode", is("REACTIVE-001"));
+        given()
+                .when().get(path + "/business-units/REACTIVE-001")
+                .then()
+                .statusCode(200)
+                .body("id", is(id));
+        given()
+                .when().get(path + "/business-units/UNKNOWN-001")
+                .then()
+                .statusCode(404);
+
+        given()
+                .contentType("application/json")
+                .body(warehouse)
+                .when().post(path)
+                .then()
+                .statusCode(400);
+
+        String etag = given().when().get(path + "/" + id).then().statusCode(200).extract().header("ETag");
+        given()
+                .header("If-None-Match", etag)
+                .when().get(path + "/" + id)
+                .then()
+                .statusCode(304);
+
+        warehouse.setCapacity(25);
+        given()
+                .contentType("application/json")
+                .header("If-Match", "\"999\"")
+                .body(warehouse)
+                .when().post(path + "/REACTIVE-001/replacement")
+                .then()
+                .statusCode(412);
+        given()
+                .contentType("application/json")
+                .header("If-Match", etag)
+                .body(warehouse)
+                .when().post(path + "/REACTIVE-001/replacement")
+                .then()
+                .statusCode(200)
+                .body("capacity", is(25));
+
+        given()
+                .contentType("application/json")
+                .body(warehouse)
+                .when().post(path + "/UNKNOWN-001/replacement")
+                .then()
+                .statusCode(404);
+
+        given()
+                .when().delete(path + "/" + id)
+                .then()
+                .statusCode(409);
+    }
+
+    @Test
+    public void testConcurrentCreatesOfTheSameWarehouseCreateItOnce() throws Exception {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode("REACTIVE-RACE-001");
+        warehouse.setLocation("AMSTERDAM-001");
+        warehouse.setCapacity(20);
+        warehouse.setStock(10);
+
+        int clients = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try {
+            for (int i = 0; i < clients; i++) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return given()
+                            .contentType("application/json")
+                            .body(warehouse)
+                            .when().post(path)
+                            .then().extract().statusCode();
+                }));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(1, Collections.frequency(results, 200), results.toString());
+            assertEquals(clients - 1, Collections.frequency(results, 400), results.toString());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        String id = given()
+                .when().get(path + "?limit=100")
+                .then()
+                .statusCode(200)
+                .extract().path("find { it.businessUnitCode == 'REACTIVE-RACE-001' }.id");
+        given()
+                .when().delete(path + "/" + id)
+                .then()
+                .statusCode(204);
+    }
+
+    @Test
+    public void testArchiveEvictsOnlyTheArchivedWarehouseFromSecondLevelCache() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode("REACTIVE-EVICT-001");
+        warehouse.setLocation("AMSTERDAM-001");
+        warehouse.setCapacity(20);
+        warehouse.setStock(10);
+        Long id = Long.valueOf(given()
+                .contentType("application/json")
+                .body(warehouse)
+                .when().post(path)
+                .then()
+                .statusCode(200)
+                .extract().<String>path("id"));
+
+        Cache cache = sessionFactory.getCache();
+        QuarkusTransaction.requiringNew().run(() -> {
+            entityManager.find(DbWarehouse.class, 1L);
+            entityManager.find(DbWarehouse.class, id);
+        });
+        assertTrue(cache.containsEntity(DbWarehouse.class, id));
+
+        given()
+                .when().delete(path + "/" + id)
+                .then()
+                .statusCode(204);
+
+        assertFalse(cache.containsEntity(DbWarehouse.class, id));
+        assertTrue(cache.containsEntity(DbWarehouse.class, 1L));
+    }
+}
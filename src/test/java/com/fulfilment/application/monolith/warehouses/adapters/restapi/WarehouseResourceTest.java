@@ -8,10 +8,16 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import java.util.List;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @QuarkusTest
 @TestTransaction
@@ -57,7 +63,20 @@ public class WarehouseResourceTest {
                 .when().post(path)
                 .then()
                 .statusCode(200)
-                .body("businessUnitCode", is("NEW-WH-999"));
+                .body("businessUnitCode", is("NEW-WH-999"))
+                .body("id", notNullValue());
+
+        given()
+                .when().get(path + "/business-units/NEW-WH-999")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .body("location", is("AMSTERDAM-002"));
+
+        given()
+                .when().get(path + "/business-units/UNKNOWN-999")
+                .then()
+                .statusCode(404);
     }
 
     @Test
@@ -103,7 +122,8 @@ public class WarehouseResourceTest {
                 .then()
                 .statusCode(200)
                 .body("businessUnitCode", is("MWH.012"))
-                .body("capacity", is(50));
+                .body("capacity", is(50))
+                .body("id", notNullValue());
     }
 
     @Test
@@ -139,4 +159,231 @@ public class WarehouseResourceTest {
                 .then()
                 .statusCode(400);
     }
+
+    @Test
+    @Order(10)
+    public void testListAllWarehousesUnitsWithLimit() {
+        List<String> ids = given().when().get(path).then().statusCode(200).extract().jsonPath().getList("id");
+
+        given()
+                .queryParam("limit", 2)
+                .when().get(path)
+                .then()
+                .statusCode(200)
+                .body("id", is(ids.subList(0, 2)));
+    }
+
+    @Test
+    @Order(11)
+    public void testListAllWarehousesUnitsAfterCursor() {
+        List<String> ids = given().when().get(path).then().statusCode(200).extract().jsonPath().getList("id");
+
+        // the last id of the first page is the cursor of the second one
+        given()
+                .queryParam("limit", 1)
+                .queryParam("after", ids.get(0))
+                .when().get(path)
+                .then()
+                .statusCode(200)
+                .body("id", is(ids.subList(1, 2)));
+    }
+
+    @Test
+    @Order(11)
+    public void testListAllWarehousesUnitsLinksNextPage() {
+        List<String> ids = given().when().get(path).then().statusCode(200).extract().jsonPath().getList("id");
+
+        String next = given()
+                .queryParam("limit", 1)
+                .when().get(path)
+                .then()
+                .statusCode(200)
+                .header("Link", containsString("rel=\"next\""))
+                .extract().header("Link");
+        assertTrue(next.contains("after=" + ids.get(0)), next);
+
+        given()
+                .queryParam("limit", ids.size() + 1)
+                .when().get(path)
+                .then()
+                .statusCode(200)
+                .header("Link", nullValue());
+    }
+
+    @Test
+    @Order(12)
+    public void testListAllWarehousesUnitsInvalidLimit() {
+        given()
+                .queryParam("limit", 0)
+                .when().get(path)
+                .then()
+                .statusCode(400);
+
+        given()
+                .queryParam("limit", 1001)
+                .when().get(path)
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(13)
+    public void testStreamAllWarehouseUnits() {
+        List<String> ids = given().when().get(path).then().statusCode(200).extract().jsonPath().getList("id");
+
+        String body = given()
+                .when().get(path + "/stream")
+                .then()
+                .statusCode(200)
+                .contentType(containsString("application/x-ndjson"))
+                .extract().asString();
+
+        String[] lines = body.split("\n");
+        assertEquals(ids.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertTrue(lines[i].startsWith("{") && lines[i].endsWith("}"));
+            assertTrue(lines[i].contains("\"id\":\"" + ids.get(i) + "\""));
+        }
+    }
+
+    @Test
+    @Order(14)
+    public void testStreamAllWarehouseUnitsAfterCursor() {
+        List<String> ids = given().when().get(path).then().statusCode(200).extract().jsonPath().getList("id");
+
+        String body = given()
+                .queryParam("after", ids.get(0))
+                .when().get(path + "/stream")
+                .then()
+                .statusCode(200)
+                .extract().asString();
+
+        assertEquals(ids.size() - 1, body.split("\n").length);
+        assertTrue(!body.contains("\"id\":\"" + ids.get(0) + "\""));
+    }
+
+    @Test
+    @Order(15)
+    public void testCreateWarehouseUnitsInBatch() {
+        Warehouse first = new Warehouse();
+        first.setBusinessUnitCode("BATCH-WH-001");
+        first.setLocation("AMSTERDAM-001");
+        first.setCapacity(1);
+        first.setStock(0);
+        Warehouse invalidLocation = new Warehouse();
+        invalidLocation.setBusinessUnitCode("BATCH-WH-002");
+        invalidLocation.setLocation("UNKNOWN-001");
+        invalidLocation.setCapacity(1);
+        invalidLocation.setStock(0);
+
+        given()
+                .contentType("application/json")
+                .body(List.of(first, invalidLocation, first))
+                .when().post(path + "/batch")
+                .then()
+                .statusCode(200)
+                .body("created", is(1),
+                        "rejected", is(2),
+                        "items[0].status", is("CREATED"),
+                        "items[0].warehouse.id", not(is((String) null)),
+                        "items[1].error", is("Invalid location"),
+                        "items[2].index", is(2),
+                        "items[2].error", is("Warehouse with business unit code already exists"));
+
+        given()
+                .when().get(path)
+                .then()
+                .statusCode(200)
+                .body(containsString("BATCH-WH-001"), not(containsString("BATCH-WH-002")));
+    }
+
+    @Test
+    @Order(16)
+    public void testCreateWarehouseUnitsInBatchEmpty() {
+        given()
+                .contentType("application/json")
+                .body("[]")
+                .when().post(path + "/batch")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(17)
+    public void testArchiveWarehouseUnitWithETag() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode("LOCKED-WH-001");
+        warehouse.setLocation("ZWOLLE-002");
+        warehouse.setCapacity(10);
+        warehouse.setStock(1);
+        String id = given()
+                .contentType("application/json")
+                .body(warehouse)
+                .when().post(path)
+                .then()
+                .statusCode(200)
+                .extract().path("id");
+        String etag = given().when().get(path + "/" + id).then().statusCode(200).extract().header("ETag");
+
+        given()
+                .header("If-Match", "\"999\"")
+                .when().delete(path + "/" + id)
+                .then()
+                .statusCode(412);
+        given()
+                .header("If-Match", etag)
+                .when().delete(path + "/" + id)
+                .then()
+                .statusCode(204);
+        given()
+                .when().get(path + "/" + id)
+                .then()
+                .statusCode(200)
+                .header("ETag", not(is(etag)));
+    }
+
+    @Test
+    @Order(18)
+    public void testReplaceWarehouseUnitWithETag() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode("LOCKED-WH-002");
+        warehouse.setLocation("ZWOLLE-002");
+        warehouse.setCapacity(10);
+        warehouse.setStock(1);
+        String id = given()
+                .contentType("application/json")
+                .body(warehouse)
+                .when().post(path)
+                .then()
+                .statusCode(200)
+                .extract().path("id");
+        String etag = given().when().get(path + "/" + id).then().statusCode(200).extract().header("ETag");
+
+        warehouse.setCapacity(12);
+        given()
+                .contentType("application/json")
+                .header("If-Match", "\"999\"")
+                .body(warehouse)
+                .when().post(path + "/LOCKED-WH-002/replacement")
+                .then()
+                .statusCode(412);
+        given()
+                .contentType("application/json")
+                .header("If-Match", "W/" + etag)
+                .body(warehouse)
+                .when().post(path + "/LOCKED-WH-002/replacement")
+                .then()
+                .statusCode(412);
+        String replacementId = given()
+                .contentType("application/json")
+                .header("If-Match", etag)
+                .body(warehouse)
+                .when().post(path + "/LOCKED-WH-002/replacement")
+                .then()
+                .statusCode(200)
+                .body("capacity", is(12))
+                .extract().path("id");
+
+        given().when().delete(path + "/" + replacementId).then().statusCode(204);
+    }
 }
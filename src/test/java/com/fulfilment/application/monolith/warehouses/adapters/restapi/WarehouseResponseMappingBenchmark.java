@@ -0,0 +1,63 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.warehouse.api.beans.Warehouse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Mapping of a single warehouse and of a whole page of {@code pageSize} warehouses to the API bean. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarehouseResponseMappingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Single {
+        com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse =
+                new com.fulfilment.application.monolith.warehouses.domain.models.Warehouse(
+                        42L, "MWH.042", "AMSTERDAM-001", 100, 50, LocalDateTime.now(), null);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Page {
+        @Param({"1", "500", "1000"})
+        public int pageSize;
+
+        List<com.fulfilment.application.monolith.warehouses.domain.models.Warehouse> warehouses;
+
+        @Setup
+        public void setup() {
+            warehouses = new ArrayList<>(pageSize);
+            LocalDateTime createdAt = LocalDateTime.now();
+            for (int i = 0; i < pageSize; i++) {
+                warehouses.add(new com.fulfilment.application.monolith.warehouses.domain.models.Warehouse(
+                        (long) i, "MWH." + i, "AMSTERDAM-001", 100, 50, createdAt, null));
+            }
+        }
+    }
+
+    @Benchmark
+    public Warehouse toWarehouseResponse(Single single) {
+        return WarehouseMapper.toResponse(single.warehouse);
+    }
+
+    @Benchmark
+    public List<Warehouse> toWarehouseResponsePage(Page page) {
+        return page.warehouses.stream().map(WarehouseMapper::toResponse).toList();
+    }
+}
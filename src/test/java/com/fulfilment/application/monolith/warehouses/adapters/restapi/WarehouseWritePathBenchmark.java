@@ -0,0 +1,113 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Creates {@code benchmark.writes} (default 2000) warehouses the way the create endpoint does, once
+ * reading the created warehouse back by business unit code to build the response, as it used to,
+ * and once using the warehouse returned by the operation. Reports latency and the number of
+ * prepared statements per write of each run.
+ *
+ * <p>Excluded from the regular build, run it with {@code mvn test -Pbenchmark -Dtest=WarehouseWritePathBenchmark -Dexec.skip}.
+ */
+@QuarkusTest
+@Tag("benchmark")
+public class WarehouseWritePathBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(WarehouseWritePathBenchmark.class);
+
+    private static final int WRITES = Integer.getInteger("benchmark.writes", 2_000);
+
+    @Inject
+    CreateWarehouseOperation createWarehouseOperation;
+
+    @Inject
+    ArchiveWarehouseOperation archiveWarehouseOperation;
+
+    @Inject
+    WarehouseStore warehouseStore;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Test
+    public void benchmarkCreateResponse() {
+        // statistics are on because Hibernate metrics are published
+        assertTrue(sessionFactory.getStatistics().isStatisticsEnabled());
+
+        // warm up both paths before measuring
+        write("WARMUP-READ-BACK-", WRITES / 4, true);
+        write("WARMUP-RETURNED-", WRITES / 4, false);
+
+        Result readBack = write("READ-BACK-", WRITES, true);
+        Result returned = write("RETURNED-", WRITES, false);
+
+        LOGGER.infof("Create of %d warehouses, response read back: %s", WRITES, readBack);
+        LOGGER.infof("Create of %d warehouses, response returned: %s", WRITES, returned);
+        LOGGER.infof("Mean latency drop: %.1f%%", 100.0 * (readBack.mean() - returned.mean()) / readBack.mean());
+
+        // timings depend on the machine and database, the saved round-trip does not
+        assertEquals(readBack.statements - WRITES, returned.statements,
+                "expected one statement less per write, " + readBack + " vs " + returned);
+    }
+
+    private Result write(String prefix, int writes, boolean readBack) {
+        Statistics statistics = sessionFactory.getStatistics();
+        long[] nanos = new long[writes];
+        long statements = 0;
+        for (int i = 0; i < writes; i++) {
+            Warehouse warehouse = new Warehouse();
+            warehouse.businessUnitCode = prefix + i;
+            warehouse.location = "VETSBY-001";
+            warehouse.capacity = 10;
+            warehouse.stock = 5;
+
+            long statementsBefore = statistics.getPrepareStatementCount();
+            long start = System.nanoTime();
+            Warehouse created = createWarehouseOperation.create(warehouse);
+            if (readBack) {
+                created = warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode);
+            }
+            WarehouseMapper.toResponse(created);
+            nanos[i] = System.nanoTime() - start;
+            statements += statistics.getPrepareStatementCount() - statementsBefore;
+
+            // the location holds a single warehouse, make room for the next one
+            archiveWarehouseOperation.archive(created);
+        }
+        Arrays.sort(nanos);
+        return new Result(nanos, statements);
+    }
+
+    private record Result(long[] sortedNanos, long statements) {
+
+        double mean() {
+            return Arrays.stream(sortedNanos).average().orElse(0) / 1_000;
+        }
+
+        double percentile(double percentile) {
+            return sortedNanos[(int) Math.min(sortedNanos.length - 1, percentile / 100 * sortedNanos.length)] / 1_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("mean %.0f us, p50 %.0f us, p99 %.0f us, %.2f statements per write",
+                    mean(), percentile(50), percentile(99), (double) statements / sortedNanos.length);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.fulfilment.application.monolith.warehouses.domain.fakes;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * {@link WarehouseStore} kept in plain maps, for benchmarks and tests that should not pay for a
+ * database. Aggregates scan the warehouses of a location, like the database does without a
+ * covering index, so their cost grows with the location size.
+ */
+public class InMemoryWarehouseStore implements WarehouseStore {
+
+    private final TreeMap<Long, Warehouse> byId = new TreeMap<>();
+    private final Map<String, List<Warehouse>> byLocation = new HashMap<>();
+    private long nextId = 1;
+
+    @Override
+    public List<Warehouse> getAll() {
+        return byId.values().stream().filter(w -> w.archivedAt == null).toList();
+    }
+
+    @Override
+    public List<Warehouse> findPage(Long afterId, int limit) {
+        return active(afterId).limit(limit).toList();
+    }
+
+    @Override
+    public void streamAll(Long afterId, Consumer<Warehouse> consumer) {
+        active(afterId).forEach(consumer);
+    }
+
+    private Stream<Warehouse> active(Long afterId) {
+        Collection<Warehouse> warehouses = afterId == null ? byId.values() : byId.tailMap(afterId, false).values();
+        return warehouses.stream().filter(w -> w.archivedAt == null);
+    }
+
+    @Override
+    public void create(Warehouse warehouse) {
+        warehouse.id = nextId++;
+        if (warehouse.createdAt == null) {
+            warehouse.createdAt = LocalDateTime.now();
+        }
+        byId.put(warehouse.id, warehouse);
+        byLocation.computeIfAbsent(warehouse.location, l -> new ArrayList<>()).add(warehouse);
+    }
+
+    @Override
+    public void createAll(List<Warehouse> warehouses) {
+        warehouses.forEach(this::create);
+    }
+
+    @Override
+    public void update(Warehouse warehouse) {
+        Warehouse current = byId.get(warehouse.id);
+        if (current == null) {
+            return;
+        }
+        if (!current.location.equals(warehouse.location)) {
+            byLocation.get(current.location).remove(current);
+            byLocation.computeIfAbsent(warehouse.location, l -> new ArrayList<>()).add(current);
+        }
+        current.location = warehouse.location;
+        current.capacity = warehouse.capacity;
+        current.stock = warehouse.stock;
+        current.archivedAt = warehouse.archivedAt;
+    }
+
+    @Override
+    public void remove(Warehouse warehouse) {
+        Warehouse current = byId.remove(warehouse.id);
+        if (current != null) {
+            byLocation.get(current.location).remove(current);
+        }
+    }
+
+    @Override
+    public Warehouse findByInternalId(Long id) {
+        return byId.get(id);
+    }
+
+    @Override
+    public Warehouse findByBusinessUnitCode(String buCode) {
+        return byId.values().stream()
+                .filter(w -> w.archivedAt == null && w.businessUnitCode.equals(buCode))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    public List<Warehouse> findByLocation(String locationIdentifier) {
+        return List.copyOf(byLocation.getOrDefault(locationIdentifier, List.of()));
+    }
+
+    @Override
+    public LocationOccupancy getLocationOccupancy(String locationIdentifier, String excludedBusinessUnitCode) {
+        LocationOccupancy occupancy = new LocationOccupancy(0, 0);
+        for (Warehouse w : byLocation.getOrDefault(locationIdentifier, List.of())) {
+            if (w.archivedAt == null && !w.businessUnitCode.equals(excludedBusinessUnitCode)) {
+                occupancy.activeWarehouses++;
+                occupancy.totalCapacity += w.capacity;
+            }
+        }
+        return occupancy;
+    }
+
+    @Override
+    public Map<String, LocationOccupancy> getLocationOccupancies(Collection<String> locationIdentifiers) {
+        Map<String, LocationOccupancy> occupancies = new HashMap<>();
+        for (String locationIdentifier : locationIdentifiers) {
+            LocationOccupancy occupancy = getLocationOccupancy(locationIdentifier, null);
+            if (occupancy.activeWarehouses > 0) {
+                occupancies.put(locationIdentifier, occupancy);
+            }
+        }
+        return occupancies;
+    }
+
+    @Override
+    public Set<String> findActiveBusinessUnitCodes(Collection<String> buCodes) {
+        Set<String> found = new HashSet<>();
+        for (Warehouse w : byId.values()) {
+            if (w.archivedAt == null && buCodes.contains(w.businessUnitCode)) {
+                found.add(w.businessUnitCode);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void lockForWrite(Collection<String> locationIdentifiers, Collection<String> buCodes) {
+        // single-threaded callers only
+    }
+}
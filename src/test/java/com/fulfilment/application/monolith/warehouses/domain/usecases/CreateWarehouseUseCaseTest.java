@@ -8,6 +8,7 @@ import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doThrow;
@@ -40,7 +41,7 @@ public class CreateWarehouseUseCaseTest {
 
     when(warehouseStore.findByBusinessUnitCode("BU001")).thenReturn(null);
 
-    createWarehouseUseCase.create(warehouse);
+    assertSame(warehouse, createWarehouseUseCase.create(warehouse));
 
     verify(warehouseValidator).validate(warehouse, null);
     verify(warehouseStore).create(warehouse);
@@ -0,0 +1,149 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+public class CreateWarehousesUseCaseTest {
+
+  @InjectMock
+  private WarehouseStore warehouseStore;
+
+  @InjectMock
+  private LocationResolver locationResolver;
+
+  @Inject
+  private CreateWarehousesUseCase createWarehousesUseCase;
+
+  private LocationOccupancy storedOccupancy;
+
+  @BeforeEach
+  public void setup() {
+    when(locationResolver.resolveAll(anyCollection()))
+        .thenReturn(Map.of("LOC1", new Location("LOC1", 2, 100)));
+    when(warehouseStore.findActiveBusinessUnitCodes(anyCollection())).thenReturn(Set.of("EXISTING"));
+    Map<String, LocationOccupancy> occupancies = new HashMap<>();
+    storedOccupancy = new LocationOccupancy(1, 30);
+    occupancies.put("LOC1", storedOccupancy);
+    when(warehouseStore.getLocationOccupancies(anyCollection())).thenReturn(occupancies);
+  }
+
+  private Warehouse warehouse(String buCode, String location, int capacity, int stock) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = buCode;
+    warehouse.location = location;
+    warehouse.capacity = capacity;
+    warehouse.stock = stock;
+    return warehouse;
+  }
+
+  @Test
+  public void testCreateAllCountsAcceptedItemsAgainstLocationLimits() {
+    // LOC1 already holds one warehouse of capacity 30 and allows two
+    List<WarehouseCreationResult> results =
+        createWarehousesUseCase.createAll(
+            List.of(warehouse("BU1", "LOC1", 40, 10), warehouse("BU2", "LOC1", 10, 5)));
+
+    assertTrue(results.get(0).isCreated());
+    assertFalse(results.get(1).isCreated());
+    assertEquals("Maximum number of warehouses reached for this location", results.get(1).error);
+    verify(warehouseStore).createAll(List.of(results.get(0).warehouse));
+  }
+
+  @Test
+  public void testCreateAllRejectsCapacityAboveRemainingLocationCapacity() {
+    List<WarehouseCreationResult> results =
+        createWarehousesUseCase.createAll(List.of(warehouse("BU1", "LOC1", 80, 10)));
+
+    assertFalse(results.get(0).isCreated());
+    verify(warehouseStore, never()).createAll(any());
+  }
+
+  @Test
+  public void testCreateAllRejectsExistingAndDuplicateBusinessUnitCodes() {
+    List<WarehouseCreationResult> results =
+        createWarehousesUseCase.createAll(
+            List.of(
+                warehouse("EXISTING", "LOC1", 10, 5),
+                warehouse("BU1", "LOC1", 10, 5),
+                warehouse("BU1", "LOC1", 10, 5)));
+
+    assertFalse(results.get(0).isCreated());
+    assertTrue(results.get(1).isCreated());
+    assertFalse(results.get(2).isCreated());
+    assertEquals("Warehouse with business unit code already exists", results.get(2).error);
+    verify(warehouseStore).createAll(List.of(results.get(1).warehouse));
+  }
+
+  @Test
+  public void testCreateAllRejectsInvalidItemsWithoutFailingTheBatch() {
+    Warehouse missingCode = warehouse(null, "LOC1", 10, 5);
+    List<WarehouseCreationResult> results =
+        createWarehousesUseCase.createAll(
+            List.of(warehouse("BU1", "UNKNOWN", 10, 5), missingCode, warehouse("BU2", "LOC1", 10, 20)));
+
+    assertEquals("Invalid location", results.get(0).error);
+    assertEquals("Warehouse business unit code is required", results.get(1).error);
+    assertEquals("Stock cannot exceed warehouse capacity", results.get(2).error);
+    assertEquals(2, results.get(2).index);
+    verify(warehouseStore, never()).createAll(any());
+  }
+
+  @Test
+  public void testCreateAllLoadsStateOncePerBatch() {
+    createWarehousesUseCase.createAll(
+        List.of(warehouse("BU1", "LOC1", 10, 5), warehouse("BU2", "LOC1", 10, 5)));
+
+    verify(warehouseStore, times(1)).findActiveBusinessUnitCodes(anyCollection());
+    verify(warehouseStore, times(1)).getLocationOccupancies(anyCollection());
+    verify(warehouseStore, never()).findByBusinessUnitCode(anyString());
+    verify(warehouseStore, never()).getLocationOccupancy(anyString(), any());
+  }
+
+  @Test
+  public void testCreateAllLocksLocationsAndCodesBeforeCheckingThem() {
+    createWarehousesUseCase.createAll(
+        List.of(warehouse("BU1", "LOC1", 10, 5), warehouse("BU2", "LOC1", 10, 5)));
+
+    InOrder order = inOrder(warehouseStore);
+    order.verify(warehouseStore).lockForWrite(Set.of("LOC1"), Set.of("BU1", "BU2"));
+    order.verify(warehouseStore).findActiveBusinessUnitCodes(anyCollection());
+    order.verify(warehouseStore).getLocationOccupancies(anyCollection());
+    order.verify(warehouseStore).createAll(any());
+  }
+
+  @Test
+  public void testCreateAllLeavesStoredOccupancyUnchanged() {
+    createWarehousesUseCase.createAll(List.of(warehouse("BU1", "LOC1", 10, 5)));
+
+    assertEquals(1, storedOccupancy.activeWarehouses);
+    assertEquals(30, storedOccupancy.totalCapacity);
+  }
+}
@@ -0,0 +1,152 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.smallrye.mutiny.Uni;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// the reactive use cases are only beans in the reactive build, so they are constructed directly
+public class ReactiveWarehouseUseCasesTest {
+
+  private final ReactiveWarehouseStore warehouseStore = mock(ReactiveWarehouseStore.class);
+  private final WarehouseValidator warehouseValidator = mock(WarehouseValidator.class);
+  private final LocationResolver locationResolver = mock(LocationResolver.class);
+
+  private final Location location = new Location("ZWOLLE-001", 1, 40);
+  private final LocationOccupancy occupancy = new LocationOccupancy(0, 0);
+
+  @BeforeEach
+  public void setUp() {
+    when(locationResolver.resolveByIdentifier("ZWOLLE-001")).thenReturn(location);
+    when(warehouseStore.create(any())).thenReturn(Uni.createFrom().voidItem());
+    when(warehouseStore.remove(any())).thenReturn(Uni.createFrom().voidItem());
+    when(warehouseStore.replace(any(), any())).thenReturn(Uni.createFrom().voidItem());
+    // the work runs against the mocked store, as if inside the transaction
+    when(warehouseStore.inWriteTransaction(any(), any(), any()))
+        .thenAnswer(invocation -> invocation.<Function<ReactiveWarehouseStore, Uni<?>>>getArgument(2).apply(warehouseStore));
+  }
+
+  @Test
+  public void testCreateWarehouseSuccess() {
+    Warehouse warehouse = warehouse("BU001");
+    when(warehouseStore.findByBusinessUnitCode("BU001")).thenReturn(Uni.createFrom().nullItem());
+    when(warehouseStore.getLocationOccupancy("ZWOLLE-001", null)).thenReturn(Uni.createFrom().item(occupancy));
+
+    Warehouse created =
+        new ReactiveCreateWarehouseUseCase(warehouseStore, warehouseValidator, locationResolver)
+            .create(warehouse)
+            .await()
+            .indefinitely();
+
+    assertSame(warehouse, created);
+    verify(warehouseStore).inWriteTransaction(eq(Set.of("ZWOLLE-001")), eq(Set.of("BU001")), any());
+    verify(warehouseValidator).validateLocation(warehouse, location);
+    verify(warehouseValidator).validateAgainst(warehouse, null, location, occupancy);
+    verify(warehouseStore).create(warehouse);
+  }
+
+  @Test
+  public void testCreateWarehouseAlreadyExists() {
+    Warehouse warehouse = warehouse("BU001");
+    when(warehouseStore.findByBusinessUnitCode("BU001")).thenReturn(Uni.createFrom().item(new Warehouse()));
+
+    var useCase = new ReactiveCreateWarehouseUseCase(warehouseStore, warehouseValidator, locationResolver);
+    assertThrows(IllegalArgumentException.class, () -> useCase.create(warehouse).await().indefinitely());
+    verify(warehouseStore, never()).create(any());
+  }
+
+  @Test
+  public void testCreateWarehouseFailsValidation() {
+    Warehouse warehouse = warehouse("BU001");
+    when(warehouseStore.findByBusinessUnitCode("BU001")).thenReturn(Uni.createFrom().nullItem());
+    when(warehouseStore.getLocationOccupancy("ZWOLLE-001", null)).thenReturn(Uni.createFrom().item(occupancy));
+    doThrow(new IllegalStateException("Location capacity exceeded"))
+        .when(warehouseValidator).validateAgainst(warehouse, null, location, occupancy);
+
+    var useCase = new ReactiveCreateWarehouseUseCase(warehouseStore, warehouseValidator, locationResolver);
+    assertThrows(IllegalStateException.class, () -> useCase.create(warehouse).await().indefinitely());
+    verify(warehouseStore, never()).create(any());
+  }
+
+  @Test
+  public void testReplaceWarehouseSuccess() {
+    Warehouse oldWarehouse = warehouse("BU001");
+    Warehouse newWarehouse = warehouse("BU001");
+    when(warehouseStore.findByBusinessUnitCode("BU001")).thenReturn(Uni.createFrom().item(oldWarehouse));
+    when(warehouseStore.getLocationOccupancy("ZWOLLE-001", "BU001")).thenReturn(Uni.createFrom().item(occupancy));
+
+    Warehouse replacement =
+        new ReactiveReplaceWarehouseUseCase(warehouseStore, warehouseValidator, locationResolver)
+            .replace(newWarehouse, null)
+            .await()
+            .indefinitely();
+
+    assertSame(newWarehouse, replacement);
+    verify(warehouseStore).inWriteTransaction(eq(Set.of("ZWOLLE-001")), eq(Set.of("BU001")), any());
+    verify(warehouseValidator).validateNotArchived(oldWarehouse);
+    verify(warehouseValidator).validateAgainst(newWarehouse, oldWarehouse, location, occupancy);
+    verify(warehouseStore).replace(oldWarehouse, newWarehouse);
+  }
+
+  @Test
+  public void testReplaceWarehouseNotFound() {
+    when(warehouseStore.findByBusinessUnitCode("BU404")).thenReturn(Uni.createFrom().nullItem());
+
+    var useCase = new ReactiveReplaceWarehouseUseCase(warehouseStore, warehouseValidator, locationResolver);
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class, () -> useCase.replace(warehouse("BU404"), null).await().indefinitely());
+    assertEquals("Warehouse to replace not found", e.getMessage());
+    verify(warehouseStore, never()).replace(any(), any());
+  }
+
+  @Test
+  public void testArchiveWarehouseSuccess() {
+    Warehouse warehouse = warehouse("BU001");
+
+    new ReactiveArchiveWarehouseUseCase(warehouseStore, warehouseValidator).archive(warehouse).await().indefinitely();
+
+    verify(warehouseValidator).validateNotArchived(warehouse);
+    verify(warehouseStore).remove(warehouse);
+  }
+
+  @Test
+  public void testArchiveWarehouseAlreadyArchived() {
+    Warehouse warehouse = warehouse("BU001");
+    warehouse.archivedAt = LocalDateTime.now();
+    doThrow(new IllegalStateException("Warehouse is already archived"))
+        .when(warehouseValidator).validateNotArchived(warehouse);
+
+    var useCase = new ReactiveArchiveWarehouseUseCase(warehouseStore, warehouseValidator);
+    assertThrows(IllegalStateException.class, () -> useCase.archive(warehouse).await().indefinitely());
+    verify(warehouseStore, never()).remove(any());
+  }
+
+  private static Warehouse warehouse(String businessUnitCode) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = businessUnitCode;
+    warehouse.location = "ZWOLLE-001";
+    warehouse.capacity = 30;
+    warehouse.stock = 10;
+    return warehouse;
+  }
+}
@@ -10,6 +10,8 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doThrow;
@@ -47,13 +49,36 @@ public class ReplaceWarehouseUseCaseTest {
 
     when(warehouseStore.findByBusinessUnitCode("BU001")).thenReturn(oldWarehouse);
 
-    replaceWarehouseUseCase.replace(newWarehouse);
+    assertSame(newWarehouse, replaceWarehouseUseCase.replace(newWarehouse, null));
 
     verify(warehouseValidator).validate(newWarehouse, oldWarehouse);
     verify(warehouseStore).remove(oldWarehouse);
     verify(warehouseStore).create(newWarehouse);
   }
 
+  @Test
+  public void testReplaceWarehouseArchivesAtExpectedVersion() {
+    Warehouse newWarehouse = new Warehouse();
+    newWarehouse.businessUnitCode = "BU001";
+    newWarehouse.capacity = 100;
+    newWarehouse.stock = 50;
+    newWarehouse.location = "LOC001";
+
+    Warehouse oldWarehouse = new Warehouse();
+    oldWarehouse.businessUnitCode = "BU001";
+    oldWarehouse.stock = 50;
+    oldWarehouse.location = "LOC001";
+    oldWarehouse.version = 3L;
+
+    when(warehouseStore.findByBusinessUnitCode("BU001")).thenReturn(oldWarehouse);
+
+    replaceWarehouseUseCase.replace(newWarehouse, 2L);
+
+    // the store refuses to archive it at a version it has moved on from
+    verify(warehouseStore).remove(oldWarehouse);
+    assertEquals(2L, oldWarehouse.version);
+  }
+
   @Test
   public void testReplaceWarehouseSuccessCapacityEqualsStock() {
     Warehouse newWarehouse = new Warehouse();
@@ -69,7 +94,7 @@ public class ReplaceWarehouseUseCaseTest {
 
     when(warehouseStore.findByBusinessUnitCode("BU001")).thenReturn(oldWarehouse);
 
-    replaceWarehouseUseCase.replace(newWarehouse);
+    replaceWarehouseUseCase.replace(newWarehouse, null);
 
     verify(warehouseValidator).validate(newWarehouse, oldWarehouse);
     verify(warehouseStore).remove(oldWarehouse);
@@ -83,7 +108,7 @@ public class ReplaceWarehouseUseCaseTest {
 
     when(warehouseStore.findByBusinessUnitCode("BU001")).thenReturn(null);
 
-    assertThrows(IllegalArgumentException.class, () -> replaceWarehouseUseCase.replace(newWarehouse));
+    assertThrows(IllegalArgumentException.class, () -> replaceWarehouseUseCase.replace(newWarehouse, null));
     verify(warehouseValidator, never()).validate(any(), any());
   }
 
@@ -102,7 +127,7 @@ public class ReplaceWarehouseUseCaseTest {
     doThrow(new IllegalArgumentException("New capacity cannot accommodate old stock"))
         .when(warehouseValidator).validate(newWarehouse, oldWarehouse);
 
-    assertThrows(IllegalArgumentException.class, () -> replaceWarehouseUseCase.replace(newWarehouse));
+    assertThrows(IllegalArgumentException.class, () -> replaceWarehouseUseCase.replace(newWarehouse, null));
     verify(warehouseValidator).validate(newWarehouse, oldWarehouse);
     verify(warehouseStore, never()).remove(any());
   }
@@ -122,7 +147,7 @@ public class ReplaceWarehouseUseCaseTest {
     doThrow(new IllegalArgumentException("Stock of new warehouse must match old stock"))
         .when(warehouseValidator).validate(newWarehouse, oldWarehouse);
 
-    assertThrows(IllegalArgumentException.class, () -> replaceWarehouseUseCase.replace(newWarehouse));
+    assertThrows(IllegalArgumentException.class, () -> replaceWarehouseUseCase.replace(newWarehouse, null));
     verify(warehouseValidator).validate(newWarehouse, oldWarehouse);
     verify(warehouseStore, never()).remove(any());
   }
@@ -140,7 +165,7 @@ public class ReplaceWarehouseUseCaseTest {
     doThrow(new IllegalStateException("Warehouse is already archived"))
         .when(warehouseValidator).validate(newWarehouse, oldWarehouse);
 
-    assertThrows(IllegalStateException.class, () -> replaceWarehouseUseCase.replace(newWarehouse));
+    assertThrows(IllegalStateException.class, () -> replaceWarehouseUseCase.replace(newWarehouse, null));
     verify(warehouseValidator).validate(newWarehouse, oldWarehouse);
     verify(warehouseStore, never()).remove(any());
   }
@@ -161,7 +186,7 @@ public class ReplaceWarehouseUseCaseTest {
     doThrow(new IllegalArgumentException("Invalid location"))
         .when(warehouseValidator).validate(newWarehouse, oldWarehouse);
 
-    assertThrows(IllegalArgumentException.class, () -> replaceWarehouseUseCase.replace(newWarehouse));
+    assertThrows(IllegalArgumentException.class, () -> replaceWarehouseUseCase.replace(newWarehouse, null));
     verify(warehouseValidator).validate(newWarehouse, oldWarehouse);
     verify(warehouseStore, never()).remove(any());
   }
@@ -184,7 +209,7 @@ public class ReplaceWarehouseUseCaseTest {
     doThrow(new IllegalStateException("Maximum capacity reached for this location"))
         .when(warehouseValidator).validate(newWarehouse, oldWarehouse);
 
-    assertThrows(IllegalStateException.class, () -> replaceWarehouseUseCase.replace(newWarehouse));
+    assertThrows(IllegalStateException.class, () -> replaceWarehouseUseCase.replace(newWarehouse, null));
     verify(warehouseValidator).validate(newWarehouse, oldWarehouse);
     verify(warehouseStore, never()).remove(any());
   }
@@ -205,7 +230,7 @@ public class ReplaceWarehouseUseCaseTest {
     doThrow(new IllegalArgumentException("Stock cannot exceed warehouse capacity"))
         .when(warehouseValidator).validate(newWarehouse, oldWarehouse);
 
-    assertThrows(IllegalArgumentException.class, () -> replaceWarehouseUseCase.replace(newWarehouse));
+    assertThrows(IllegalArgumentException.class, () -> replaceWarehouseUseCase.replace(newWarehouse, null));
     verify(warehouseValidator).validate(newWarehouse, oldWarehouse);
     verify(warehouseStore, never()).remove(any());
   }
@@ -227,13 +252,13 @@ public class ReplaceWarehouseUseCaseTest {
     doThrow(new IllegalStateException("Maximum number of warehouses reached for this location"))
         .when(warehouseValidator).validate(newWarehouse, oldWarehouse);
 
-    assertThrows(IllegalStateException.class, () -> replaceWarehouseUseCase.replace(newWarehouse));
+    assertThrows(IllegalStateException.class, () -> replaceWarehouseUseCase.replace(newWarehouse, null));
     verify(warehouseValidator).validate(newWarehouse, oldWarehouse);
     verify(warehouseStore, never()).remove(any());
   }
 
   @Test
   public void testReplaceWarehouseNullInput() {
-    assertThrows(NullPointerException.class, () -> replaceWarehouseUseCase.replace(null));
+    assertThrows(NullPointerException.class, () -> replaceWarehouseUseCase.replace(null, null));
   }
 }
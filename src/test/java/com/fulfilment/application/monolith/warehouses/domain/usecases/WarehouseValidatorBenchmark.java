@@ -0,0 +1,98 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.fakes.InMemoryWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/** Validation of a create and of a replacement against a location holding {@code warehouses} units. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WarehouseValidatorBenchmark {
+
+    private static final String LOCATION = "BENCH-001";
+
+    @Param({"1", "1000", "100000"})
+    public int warehouses;
+
+    private WarehouseValidator validator;
+    private Warehouse newWarehouse;
+    private Warehouse existing;
+    private Warehouse replacement;
+
+    @Setup
+    public void setup() {
+        InMemoryWarehouseStore store = new InMemoryWarehouseStore();
+        for (int i = 0; i < warehouses; i++) {
+            store.create(warehouse("BENCH-" + i, 10, 5));
+        }
+        Location location = new Location(LOCATION, warehouses + 1, warehouses * 10 + 100);
+        validator = new WarehouseValidator(store, new SingleLocationResolver(location));
+
+        newWarehouse = warehouse("BENCH-NEW", 10, 5);
+        existing = store.findByInternalId(1L);
+        replacement = warehouse(existing.businessUnitCode, 20, existing.stock);
+    }
+
+    @Benchmark
+    public Warehouse validateCreate() {
+        validator.validate(newWarehouse, null);
+        return newWarehouse;
+    }
+
+    @Benchmark
+    public Warehouse validateReplacement() {
+        validator.validate(replacement, existing);
+        return replacement;
+    }
+
+    private static Warehouse warehouse(String buCode, int capacity, int stock) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.businessUnitCode = buCode;
+        warehouse.location = LOCATION;
+        warehouse.capacity = capacity;
+        warehouse.stock = stock;
+        return warehouse;
+    }
+
+    private record SingleLocationResolver(Location location) implements LocationResolver {
+        @Override
+        public Location resolveByIdentifier(String identifier) {
+            return location.identification.equals(identifier) ? location : null;
+        }
+
+        @Override
+        public Map<String, Location> resolveAll(Collection<String> identifiers) {
+            Map<String, Location> resolved = new HashMap<>();
+            if (identifiers.contains(location.identification)) {
+                resolved.put(location.identification, location);
+            }
+            return resolved;
+        }
+
+        @Override
+        public boolean hasLocation(String identifier) {
+            return location.identification.equals(identifier);
+        }
+    }
+}
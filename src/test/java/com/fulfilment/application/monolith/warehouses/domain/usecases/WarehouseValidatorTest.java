@@ -1,6 +1,7 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
@@ -11,12 +12,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @QuarkusTest
@@ -42,7 +44,7 @@ public class WarehouseValidatorTest {
     @Test
     public void testValidateSuccess() {
         Warehouse warehouse = createWarehouse("BU1", "LOC1", 100, 50);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(Collections.emptyList());
+        when(warehouseStore.getLocationOccupancy("LOC1", null)).thenReturn(new LocationOccupancy(0, 0));
 
         assertDoesNotThrow(() -> warehouseValidator.validate(warehouse, null));
     }
@@ -58,9 +60,8 @@ public class WarehouseValidatorTest {
     @Test
     public void testValidateMaxWarehousesReached() {
         Warehouse warehouse = createWarehouse("BU3", "LOC1", 100, 50);
-        Warehouse w1 = createWarehouse("BU1", "LOC1", 100, 50);
-        Warehouse w2 = createWarehouse("BU2", "LOC1", 100, 50);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(w1, w2));
+        // BU1 and BU2 already active at LOC1
+        when(warehouseStore.getLocationOccupancy("LOC1", null)).thenReturn(new LocationOccupancy(2, 200));
 
         assertThrows(IllegalStateException.class, () -> warehouseValidator.validate(warehouse, null));
     }
@@ -70,9 +71,9 @@ public class WarehouseValidatorTest {
         Warehouse oldWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 200, 50);
         
-        // Even if max warehouses is reached, same location replacement should be fine
+        // Even if max warehouses is reached (BU2 is there), same location replacement should be fine
         defaultLocation.maxNumberOfWarehouses = 1;
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse));
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(1, 100));
 
         assertDoesNotThrow(() -> warehouseValidator.validate(newWarehouse, oldWarehouse));
     }
@@ -80,16 +81,23 @@ public class WarehouseValidatorTest {
     @Test
     public void testValidateMaxCapacityReached() {
         Warehouse warehouse = createWarehouse("BU2", "LOC1", 600, 50);
-        Warehouse w1 = createWarehouse("BU1", "LOC1", 500, 50);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(w1));
+        when(warehouseStore.getLocationOccupancy("LOC1", null)).thenReturn(new LocationOccupancy(1, 500));
 
         assertThrows(IllegalStateException.class, () -> warehouseValidator.validate(warehouse, null));
     }
 
+    @Test
+    public void testValidateMissingCapacity() {
+        Warehouse warehouse = createWarehouse("BU1", "LOC1", 100, 50);
+        warehouse.capacity = null;
+
+        assertThrows(IllegalArgumentException.class, () -> warehouseValidator.validate(warehouse, null));
+    }
+
     @Test
     public void testValidateStockExceedsCapacity() {
         Warehouse warehouse = createWarehouse("BU1", "LOC1", 100, 150);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(Collections.emptyList());
+        when(warehouseStore.getLocationOccupancy("LOC1", null)).thenReturn(new LocationOccupancy(0, 0));
 
         assertThrows(IllegalArgumentException.class, () -> warehouseValidator.validate(warehouse, null));
     }
@@ -98,7 +106,7 @@ public class WarehouseValidatorTest {
     public void testValidateReplacementCapacityTooSmall() {
         Warehouse oldWarehouse = createWarehouse("BU1", "LOC1", 100, 80);
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 50, 80);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse));
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(0, 0));
 
         assertThrows(IllegalArgumentException.class, () -> warehouseValidator.validate(newWarehouse, oldWarehouse));
     }
@@ -107,7 +115,7 @@ public class WarehouseValidatorTest {
     public void testValidateReplacementStockMismatch() {
         Warehouse oldWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 100, 60);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse));
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(0, 0));
 
         assertThrows(IllegalArgumentException.class, () -> warehouseValidator.validate(newWarehouse, oldWarehouse));
     }
@@ -139,9 +147,8 @@ public class WarehouseValidatorTest {
         Warehouse oldWarehouse = createWarehouse("BU1", "LOC2", 100, 50);
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
 
-        Warehouse w1 = createWarehouse("BU2", "LOC1", 100, 50);
-        Warehouse w2 = createWarehouse("BU3", "LOC1", 100, 50);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(w1, w2));
+        // BU2 and BU3 already active at LOC1
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(2, 200));
 
         assertThrows(IllegalStateException.class, () -> warehouseValidator.validate(newWarehouse, oldWarehouse));
     }
@@ -153,9 +160,8 @@ public class WarehouseValidatorTest {
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 600, 50);
 
         // Location has maxCapacity 1000.
-        // Existing warehouses at LOC1: oldWarehouse(500) and anotherWarehouse(400)
-        Warehouse anotherWarehouse = createWarehouse("BU2", "LOC1", 400, 50);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse, anotherWarehouse));
+        // Existing warehouses at LOC1: oldWarehouse(500) and BU2(400); the store leaves BU1 out
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(1, 400));
 
         // If oldWarehouse is excluded: 400 + 600 = 1000 (Success)
         // If oldWarehouse is NOT excluded: 500 + 400 + 600 = 1500 (Failure)
@@ -165,9 +171,8 @@ public class WarehouseValidatorTest {
     @Test
     public void testValidateCapacityCalculationIncludesOtherWarehouses() {
         Warehouse warehouse = createWarehouse("BU3", "LOC1", 601, 50);
-        Warehouse w1 = createWarehouse("BU1", "LOC1", 200, 50);
-        Warehouse w2 = createWarehouse("BU2", "LOC1", 200, 50);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(w1, w2));
+        // BU1(200) and BU2(200) already active at LOC1
+        when(warehouseStore.getLocationOccupancy("LOC1", null)).thenReturn(new LocationOccupancy(2, 400));
 
         // 200 + 200 + 601 = 1001 > 1000
         assertThrows(IllegalStateException.class, () -> warehouseValidator.validate(warehouse, null));
@@ -175,20 +180,14 @@ public class WarehouseValidatorTest {
 
     @Test
     public void testValidateCapacityCalculationExcludesReplacedWarehouseWithDifferentBuCode() {
-        // This is a special case to cover: 
-        // .filter(w -> existingWarehouseBeingReplaced == null || !w.businessUnitCode.equals(existingWarehouseBeingReplaced.businessUnitCode))
-        // where existingWarehouseBeingReplaced != null AND w.businessUnitCode EQUALS existingWarehouseBeingReplaced.businessUnitCode
-        
         Warehouse oldWarehouse = createWarehouse("BU1", "LOC1", 500, 50);
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 500, 50);
         
-        // We have BU1 (being replaced) and BU2.
-        Warehouse w2 = createWarehouse("BU2", "LOC1", 400, 50);
-        
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse, w2));
+        // We have BU1 (being replaced, 500, left out by the store) and BU2 (400).
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(1, 400));
         
-        // Capacity: newWarehouse(500) + w2(400) = 900 <= 1000. 
-        // oldWarehouse(500) is filtered out by the BU code check.
+        // Capacity: newWarehouse(500) + BU2(400) = 900 <= 1000. 
+        // oldWarehouse(500) is excluded by its BU code.
         assertDoesNotThrow(() -> warehouseValidator.validate(newWarehouse, oldWarehouse));
     }
 
@@ -197,61 +196,18 @@ public class WarehouseValidatorTest {
         Warehouse oldWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
         
-        // w2 has different BU code, so it should be included
-        Warehouse w2 = createWarehouse("BU2", "LOC1", 901, 50);
+        // BU2 (901) has a different BU code, so it stays included
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(1, 901));
         
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse, w2));
-        
-        // Capacity: newWarehouse(100) + w2(901) = 1001 > 1000
+        // Capacity: newWarehouse(100) + BU2(901) = 1001 > 1000
         assertThrows(IllegalStateException.class, () -> warehouseValidator.validate(newWarehouse, oldWarehouse));
     }
 
-    @Test
-    public void testValidateCapacityCalculationWithArchivedWarehouses() {
-        Warehouse warehouse = createWarehouse("BU1", "LOC1", 500, 50);
-        
-        Warehouse wArchived = createWarehouse("BU_OLD", "LOC1", 600, 50);
-        wArchived.archivedAt = LocalDateTime.now();
-        
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(wArchived));
-        
-        // Archived warehouse should be filtered out, so 500 <= 1000
-        assertDoesNotThrow(() -> warehouseValidator.validate(warehouse, null));
-    }
-
-    @Test
-    public void testValidateCapacityCalculationExcludesArchivedDuringReplacement() {
-        Warehouse oldWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
-        Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
-        
-        Warehouse wArchived = createWarehouse("BU_OLD", "LOC1", 600, 50);
-        wArchived.archivedAt = LocalDateTime.now();
-        
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse, wArchived));
-        
-        // 100 (new) + 0 (archived) + 0 (old BU1 excluded) = 100 <= 1000
-        assertDoesNotThrow(() -> warehouseValidator.validate(newWarehouse, oldWarehouse));
-    }
-
-    @Test
-    public void testValidateMaxWarehousesCalculationWithArchived() {
-        Warehouse warehouse = createWarehouse("BU3", "LOC1", 100, 50);
-        
-        Warehouse w1 = createWarehouse("BU1", "LOC1", 100, 50);
-        Warehouse wArchived = createWarehouse("BU2", "LOC1", 100, 50);
-        wArchived.archivedAt = LocalDateTime.now();
-        
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(w1, wArchived));
-        
-        // Only w1 is active, so active count is 1. 1 < 2 (maxNumberOfWarehouses)
-        assertDoesNotThrow(() -> warehouseValidator.validate(warehouse, null));
-    }
-
     @Test
     public void testValidateCapacityAccommodationAtLimit() {
         Warehouse oldWarehouse = createWarehouse("BU1", "LOC1", 100, 80);
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 80, 80);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse));
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(0, 0));
 
         // capacity 80 is exactly enough for stock 80
         assertDoesNotThrow(() -> warehouseValidator.validate(newWarehouse, oldWarehouse));
@@ -261,7 +217,7 @@ public class WarehouseValidatorTest {
     public void testValidateCapacityAccommodationSuccess() {
         Warehouse oldWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 150, 50);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse));
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(0, 0));
 
         // capacity 150 is more than enough for stock 50
         assertDoesNotThrow(() -> warehouseValidator.validate(newWarehouse, oldWarehouse));
@@ -269,15 +225,11 @@ public class WarehouseValidatorTest {
 
     @Test
     public void testValidateReplacementCapacityCheckExcludesMatchesBuCode() {
-        // existingWarehouseBeingReplaced == null -> false
-        // w.businessUnitCode.equals(existingWarehouseBeingReplaced.businessUnitCode) -> true
-        // then the filter returns false, and the warehouse is EXCLUDED from sum.
-        
         Warehouse oldWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 1000, 50);
         
         // oldWarehouse is BU1.
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse));
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(0, 0));
         
         // 0 (old BU1 excluded) + 1000 (new) = 1000 <= 1000
         assertDoesNotThrow(() -> warehouseValidator.validate(newWarehouse, oldWarehouse));
@@ -285,14 +237,13 @@ public class WarehouseValidatorTest {
 
     @Test
     public void testValidateCapacityCalculationWhenNoReplacedWarehouse() {
-        // existingWarehouseBeingReplaced == null -> true
-        // then the filter returns true, and ALL warehouses are INCLUDED in sum.
+        // existingWarehouseBeingReplaced == null -> the whole occupancy is counted
         Warehouse warehouse = createWarehouse("BU_NEW", "LOC1", 100, 50);
+
+        // BU1 (900) already active at LOC1
+        when(warehouseStore.getLocationOccupancy("LOC1", null)).thenReturn(new LocationOccupancy(1, 900));
         
-        Warehouse w1 = createWarehouse("BU1", "LOC1", 900, 50);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(w1));
-        
-        // 900 (w1 included) + 100 = 1000 <= 1000
+        // 900 (BU1 included) + 100 = 1000 <= 1000
         assertDoesNotThrow(() -> warehouseValidator.validate(warehouse, null));
     }
 
@@ -300,7 +251,7 @@ public class WarehouseValidatorTest {
     public void testValidateReplacementLocationChanged() {
         Warehouse oldWarehouse = createWarehouse("BU1", "LOC2", 100, 50);
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(Collections.emptyList());
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(0, 0));
 
         // Location changed from LOC2 to LOC1. Should check max warehouses at LOC1.
         assertDoesNotThrow(() -> warehouseValidator.validate(newWarehouse, oldWarehouse));
@@ -313,7 +264,7 @@ public class WarehouseValidatorTest {
         
         // Even if max warehouses reached at LOC1, it should skip the check.
         defaultLocation.maxNumberOfWarehouses = 0; 
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(Collections.emptyList());
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(0, 0));
 
         assertDoesNotThrow(() -> warehouseValidator.validate(newWarehouse, oldWarehouse));
     }
@@ -325,38 +276,43 @@ public class WarehouseValidatorTest {
         
         // Should skip max warehouse check because identifiers are equal
         defaultLocation.maxNumberOfWarehouses = 0;
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(Collections.emptyList());
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(0, 0));
 
         assertDoesNotThrow(() -> warehouseValidator.validate(newWarehouse, oldWarehouse));
     }
 
-    @Test
-    public void testValidateReplacementWithOtherArchivedWarehouses() {
-        Warehouse oldWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
-        Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 100, 50);
-        
-        // An archived warehouse with the SAME BU code as the one being replaced.
-        // This covers the edge case in the filter: 
-        // .filter(w -> existingWarehouseBeingReplaced == null || !w.businessUnitCode.equals(existingWarehouseBeingReplaced.businessUnitCode))
-        Warehouse wArchivedWithSameBU = createWarehouse("BU1", "LOC1", 500, 50);
-        wArchivedWithSameBU.archivedAt = LocalDateTime.now();
-        
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse, wArchivedWithSameBU));
-        
-        assertDoesNotThrow(() -> warehouseValidator.validate(newWarehouse, oldWarehouse));
-    }
-
     @Test
     public void testValidateCapacityAccommodationFailure() {
         Warehouse oldWarehouse = createWarehouse("BU1", "LOC1", 100, 80);
         Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 50, 50);
-        when(warehouseStore.findByLocation("LOC1")).thenReturn(List.of(oldWarehouse));
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(0, 0));
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
             () -> warehouseValidator.validate(newWarehouse, oldWarehouse));
         assertEquals("New capacity cannot accommodate old stock", exception.getMessage());
     }
 
+    @Test
+    public void testValidateReplacementFromOtherLocationDoesNotGiveCapacityBack() {
+        Warehouse oldWarehouse = createWarehouse("BU1", "LOC2", 500, 50);
+        Warehouse newWarehouse = createWarehouse("BU1", "LOC1", 600, 50);
+        when(warehouseStore.getLocationOccupancy("LOC1", "BU1")).thenReturn(new LocationOccupancy(1, 500));
+
+        // 500 (BU2 at LOC1) + 600 (new) = 1100 > 1000, the old capacity lives at LOC2
+        assertThrows(IllegalStateException.class, () -> warehouseValidator.validate(newWarehouse, oldWarehouse));
+    }
+
+    @Test
+    public void testValidateDoesNotLoadWarehousesOfLocation() {
+        Warehouse warehouse = createWarehouse("BU1", "LOC1", 100, 50);
+        when(warehouseStore.getLocationOccupancy("LOC1", null)).thenReturn(new LocationOccupancy(1, 100));
+
+        warehouseValidator.validate(warehouse, null);
+
+        verify(warehouseStore).getLocationOccupancy("LOC1", null);
+        verify(warehouseStore, never()).findByLocation(any());
+    }
+
     private Warehouse createWarehouse(String buCode, String location, int capacity, int stock) {
         Warehouse w = new Warehouse();
         w.businessUnitCode = buCode;